@@ -68,6 +68,14 @@ CREATE INDEX IF NOT EXISTS idx_books_author ON books(author);
 CREATE INDEX IF NOT EXISTS idx_books_isbn ON books(isbn);
 CREATE INDEX IF NOT EXISTS idx_books_publish_date ON books(publish_date);
 
+-- Keyset pagination (GET /api/books?sort=updatedAt) walks (updated_at, id)
+UPDATE books SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_books_updated_at_id ON books(updated_at, id);
+
+-- Collection writes use INSERT ... ON CONFLICT DO NOTHING on (user_id, book_id)
+CREATE UNIQUE INDEX IF NOT EXISTS uq_user_books_user_book ON user_books(user_id, book_id);
+CREATE INDEX IF NOT EXISTS idx_user_books_book ON user_books(book_id);
+
 -- ============================================
 -- Functions and Triggers
 -- ============================================
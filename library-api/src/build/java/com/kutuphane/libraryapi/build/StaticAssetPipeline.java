@@ -0,0 +1,118 @@
+package com.kutuphane.libraryapi.build;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Derleme aşaması (exec:java, process-classes): target/classes/static altındaki js/css dosyalarını
+// içerik özetli adlarla assets/ altına kopyalar, .gz/.br sürümlerini yazar ve HTML referanslarını günceller
+public final class StaticAssetPipeline {
+
+    static final String ASSET_DIR = "assets";
+    private static final int HASH_LENGTH = 10;
+    // Çok küçük dosyalarda sıkıştırılmış sürüm kazanç sağlamaz
+    private static final int MIN_COMPRESS_SIZE = 256;
+
+    private StaticAssetPipeline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: StaticAssetPipeline <static directory>");
+        }
+        Path staticDir = Path.of(args[0]);
+        if (!Files.isDirectory(staticDir)) {
+            System.out.println("[assets] " + staticDir + " not found, nothing to do");
+            return;
+        }
+        boolean brotli = Brotli4jLoader.isAvailable();
+        if (!brotli) {
+            System.out.println("[assets] Brotli native library unavailable on this platform, writing gzip only");
+        }
+
+        Path assetDir = Files.createDirectories(staticDir.resolve(ASSET_DIR));
+        Map<String, String> renamed = new LinkedHashMap<>();
+        for (Path source : list(staticDir, ".js", ".css")) {
+            byte[] content = Files.readAllBytes(source);
+            String name = source.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            String hashed = name.substring(0, dot) + "." + hash(content) + name.substring(dot);
+            Path target = assetDir.resolve(hashed);
+            Files.write(target, content);
+            if (content.length >= MIN_COMPRESS_SIZE) {
+                Files.write(assetDir.resolve(hashed + ".gz"), gzip(content));
+                if (brotli) {
+                    Files.write(assetDir.resolve(hashed + ".br"),
+                            Encoder.compress(content, new Encoder.Parameters().setQuality(11)));
+                }
+            }
+            renamed.put(name, ASSET_DIR + "/" + hashed);
+            System.out.println("[assets] " + name + " -> " + ASSET_DIR + "/" + hashed);
+        }
+
+        for (Path page : list(staticDir, ".html")) {
+            String html = Files.readString(page, StandardCharsets.UTF_8);
+            String rewritten = html;
+            for (Map.Entry<String, String> entry : renamed.entrySet()) {
+                // Yalnızca tırnak içindeki tam dosya adları (href="style.css", src="script.js")
+                rewritten = rewritten.replace("\"" + entry.getKey() + "\"", "\"" + entry.getValue() + "\"");
+            }
+            if (!rewritten.equals(html)) {
+                Files.writeString(page, rewritten, StandardCharsets.UTF_8);
+                System.out.println("[assets] rewrote references in " + page.getFileName());
+            }
+        }
+    }
+
+    private static List<Path> list(Path dir, String... extensions) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        for (String extension : extensions) {
+                            if (name.endsWith(extension)) {
+                                return true;
+                            }
+                        }
+                        return false;
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+}
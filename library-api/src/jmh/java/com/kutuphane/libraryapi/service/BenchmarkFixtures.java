@@ -0,0 +1,80 @@
+package com.kutuphane.libraryapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kutuphane.libraryapi.model.Book;
+import com.kutuphane.libraryapi.service.GoogleBooksService.BookSuggestion;
+import com.kutuphane.libraryapi.service.GoogleBooksService.GoogleBooksResponse;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Benchmarks için sabit girdiler: kayıtlı Google Books yanıtı ve tohumdan türetilen kitaplar
+final class BenchmarkFixtures {
+
+    static final String GOOGLE_BOOKS_PAYLOAD = "/fixtures/google-books-volumes.json";
+
+    private BenchmarkFixtures() {
+    }
+
+    // Spring Boot'un HTTP yanıtları için kurduğu ObjectMapper ile aynı ayarlar
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    static byte[] googleBooksPayload() {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream(GOOGLE_BOOKS_PAYLOAD)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + GOOGLE_BOOKS_PAYLOAD);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static GoogleBooksResponse googleBooksResponse(ObjectMapper mapper) {
+        try {
+            return mapper.readValue(googleBooksPayload(), GoogleBooksResponse.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<BookSuggestion> suggestions(ObjectMapper mapper) {
+        return GoogleBooksService.convertToBookSuggestions(googleBooksResponse(mapper));
+    }
+
+    // Deterministic books; the same count always yields the same content
+    static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>(count);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        for (int i = 1; i <= count; i++) {
+            Book book = new Book();
+            book.setId((long) i);
+            book.setTitle("Kitap başlığı " + i);
+            book.setAuthor("Yazar " + (i % 97));
+            book.setIsbn(String.format("978%010d", 6050000000L + i * 7919L));
+            book.setPublishDate(LocalDate.of(1950 + i % 75, 1 + i % 12, 1 + i % 28));
+            book.setPageCount(100 + (i * 37) % 800);
+            book.setGoogleBooksId(String.format("bk%010d", i));
+            book.setPublisher("Yayınevi " + (i % 31));
+            book.setDescription(("Kitap " + i + " için açıklama metni. ").repeat(8));
+            book.setLanguage(i % 3 == 0 ? "en" : "tr");
+            book.setThumbnail("http://books.google.com/books/content?id=bk" + i + "&img=1&zoom=1");
+            book.setSmallThumbnail("http://books.google.com/books/content?id=bk" + i + "&img=1&zoom=5");
+            book.setCreatedAt(base.plusMinutes(i));
+            book.setUpdatedAt(base.plusMinutes(i));
+            books.add(book);
+        }
+        return books;
+    }
+}
@@ -0,0 +1,48 @@
+package com.kutuphane.libraryapi.service;
+
+import com.kutuphane.libraryapi.model.Book;
+import com.kutuphane.libraryapi.service.GoogleBooksService.BookSuggestion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Öneriden kitap oluşturma; Google Books'un döndürdüğü her tarih biçimi ayrı ölçülür
+ * (geçersiz tarih istisna yolunu çalıştırır).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BookFromSuggestionBenchmark {
+
+    @Param({"1998", "2000-05", "2019-03-12", "circa 1920"})
+    public String publishedDate;
+
+    private BookSuggestion suggestion;
+
+    @Setup
+    public void setUp() {
+        List<BookSuggestion> suggestions = BenchmarkFixtures.suggestions(BenchmarkFixtures.objectMapper());
+        suggestion = suggestions.get(0);
+        suggestion.setPublishedDate(publishedDate);
+    }
+
+    @Benchmark
+    public Book createBook() {
+        return UserBookService.createBookFromSuggestion(suggestion);
+    }
+}
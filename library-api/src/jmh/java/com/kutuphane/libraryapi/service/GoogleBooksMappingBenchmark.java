@@ -0,0 +1,66 @@
+package com.kutuphane.libraryapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kutuphane.libraryapi.service.GoogleBooksService.BookSuggestion;
+import com.kutuphane.libraryapi.service.GoogleBooksService.GoogleBooksResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Google Books yanıtının öneri listesine dönüştürülmesi: yalnızca eşleme ve
+ * JSON çözümleme + eşleme (her /search isteğinde cache miss durumunda çalışan yol).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GoogleBooksMappingBenchmark {
+
+    // Kayıtlı yanıt 40 öğe içerir (MAX_RESULTS_LIMIT); daha küçük sayfalar ilk N öğedir
+    @Param({"10", "40"})
+    public int items;
+
+    private ObjectMapper objectMapper;
+    private GoogleBooksResponse response;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        // Ham JSON ağacı kırpılır; eşlenmeyen alanlar (saleInfo, accessInfo...) çözümleme maliyetinde kalır
+        ObjectNode tree = (ObjectNode) objectMapper.readTree(BenchmarkFixtures.googleBooksPayload());
+        ArrayNode allItems = (ArrayNode) tree.get("items");
+        while (allItems.size() > items) {
+            allItems.remove(allItems.size() - 1);
+        }
+        payload = objectMapper.writeValueAsBytes(tree);
+        response = objectMapper.readValue(payload, GoogleBooksResponse.class);
+    }
+
+    @Benchmark
+    public List<BookSuggestion> convert() {
+        return GoogleBooksService.convertToBookSuggestions(response);
+    }
+
+    @Benchmark
+    public List<BookSuggestion> deserializeAndConvert() throws IOException {
+        return GoogleBooksService.convertToBookSuggestions(objectMapper.readValue(payload, GoogleBooksResponse.class));
+    }
+}
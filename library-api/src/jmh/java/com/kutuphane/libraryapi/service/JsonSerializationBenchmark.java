@@ -0,0 +1,58 @@
+package com.kutuphane.libraryapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kutuphane.libraryapi.model.Book;
+import com.kutuphane.libraryapi.service.GoogleBooksService.BookSuggestion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Yanıt gövdelerinin JSON serileştirmesi: kitap sayfaları (/api/books) ve
+ * öneri listeleri (/api/books/search).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JsonSerializationBenchmark {
+
+    // Varsayılan ve en büyük sayfa boyutu (BookServiceImpl)
+    @Param({"50", "200"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<Book> books;
+    private List<BookSuggestion> suggestions;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        books = BenchmarkFixtures.books(pageSize);
+        suggestions = BenchmarkFixtures.suggestions(objectMapper);
+    }
+
+    @Benchmark
+    public byte[] serializeBooks() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] serializeSuggestions() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(suggestions);
+    }
+}
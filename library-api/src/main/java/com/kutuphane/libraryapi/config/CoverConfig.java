@@ -0,0 +1,23 @@
+package com.kutuphane.libraryapi.config;
+
+import com.kutuphane.libraryapi.service.CoverOrigin;
+import com.kutuphane.libraryapi.service.HttpCoverOrigin;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+// Varsayılan kapak kaynağı; testler kendi CoverOrigin bean'ini tanımlayarak yerine geçebilir
+@Configuration
+public class CoverConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(CoverOrigin.class)
+    public CoverOrigin coverOrigin(@Value("${library.covers.fetch-timeout:5s}") Duration timeout,
+                                   @Value("${library.covers.max-source-size:5MB}") DataSize maxSourceSize) {
+        return new HttpCoverOrigin(timeout, maxSourceSize.toBytes());
+    }
+}
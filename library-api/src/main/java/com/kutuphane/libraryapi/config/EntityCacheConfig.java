@@ -0,0 +1,57 @@
+package com.kutuphane.libraryapi.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.kutuphane.libraryapi.model.Book;
+import com.kutuphane.libraryapi.model.User;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+// Hibernate ikinci seviye önbellek bölgeleri: JCache üzerinden Caffeine, bölge başına boyut sınırı
+// (isabet oranları hibernate.generate_statistics ile hibernate.* metriklerinde)
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean
+    public CacheManager entityCacheManager(
+            @Value("${library.entity-cache.books.max-size:20000}") long booksMaxSize,
+            @Value("${library.entity-cache.users.max-size:5000}") long usersMaxSize,
+            @Value("${library.entity-cache.ttl:1h}") Duration ttl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        createRegion(cacheManager, Book.CACHE_REGION, booksMaxSize, ttl);
+        createRegion(cacheManager, User.CACHE_REGION, usersMaxSize, ttl);
+        createRegion(cacheManager, User.USERNAME_CACHE_REGION, usersMaxSize, ttl);
+        return cacheManager;
+    }
+
+    // Bölgeler Hibernate'e buradan verilir; burada tanımlanmamış bir bölge sınırsız oluşturulmaz, açılış hata verir
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, long maxSize, Duration ttl) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
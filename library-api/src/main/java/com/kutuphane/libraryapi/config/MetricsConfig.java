@@ -0,0 +1,38 @@
+package com.kutuphane.libraryapi.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Micrometer ayarları: denetleyiciler http.server.requests ile, servisler @Timed ile ölçülür
+@Configuration
+public class MetricsConfig {
+
+    // @Timed sınıf ve metot düzeyinde çalışsın diye
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Sanal thread modunda Hikari önündeki semafor: bekleyen ve boştaki izinler
+    @Bean
+    public MeterBinder connectionLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+                Gauge.builder("library.db.limiter.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                        .description("Free JDBC permits in front of the connection pool")
+                        .register(registry);
+                Gauge.builder("library.db.limiter.waiting", limiter, ConnectionLimitingDataSource::getQueueLength)
+                        .description("Threads waiting for a JDBC permit")
+                        .register(registry);
+                Gauge.builder("library.db.limiter.max", limiter, ConnectionLimitingDataSource::getMaxConcurrency)
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -1,24 +1,35 @@
 package com.kutuphane.libraryapi.config;
 
+import com.kutuphane.libraryapi.security.SessionTokenService;
+import com.kutuphane.libraryapi.security.StatelessTokenFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
     
+    // "stateful" (HttpSession) or "stateless" (signed token cookie, no server-side session)
+    public static final String SESSION_MODE_PROPERTY = "security.session.mode";
+    
+    // Raising the strength rehashes existing passwords on their next successful login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
     
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           SessionTokenService sessionTokenService,
+                                           @Value("${" + SESSION_MODE_PROPERTY + ":stateful}") String sessionMode) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.disable())
@@ -26,12 +37,24 @@ public class SecurityConfig {
                 .anyRequest().permitAll()
             )
             .formLogin(form -> form.disable())
-            .httpBasic(basic -> basic.disable())
-            .sessionManagement(session -> session
-                .maximumSessions(1)
-                .maxSessionsPreventsLogin(false)
-            );
+            .httpBasic(basic -> basic.disable());
+        
+        if ("stateless".equalsIgnoreCase(sessionMode)) {
+            // Every request is authenticated from its token; nothing is kept per user on the server
+            http
+                .sessionManagement(session -> session
+                    .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                )
+                .addFilterBefore(new StatelessTokenFilter(sessionTokenService),
+                    UsernamePasswordAuthenticationFilter.class);
+        } else {
+            http
+                .sessionManagement(session -> session
+                    .maximumSessions(1)
+                    .maxSessionsPreventsLogin(false)
+                );
+        }
         
         return http.build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.kutuphane.libraryapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.util.concurrent.TimeUnit;
+
+// Derlemede içerik özetli adlarla yazılan /assets/** dosyaları bir yıl, değişmez olarak önbelleğe alınır;
+// hazır .br/.gz sürümü Accept-Encoding'e göre seçilir (Tomcat yeniden sıkıştırmaz)
+@Configuration
+public class StaticAssetConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations("classpath:/static/assets/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+    }
+}
@@ -0,0 +1,36 @@
+package com.kutuphane.libraryapi.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// spring.threads.virtual.enabled=true iken etkin; sanal thread'lerde havuz sınırı olmadığından veritabanı eşzamanlılığını sınırlar
+// (pinning tanısı: -Djdk.tracePinnedThreads=short)
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                // Defaults to the Hikari pool size so callers queue here instead of inside the pool
+                int maxConcurrency = environment.getProperty("library.db.max-concurrency", Integer.class,
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                Duration acquireTimeout = environment.getProperty("library.db.acquire-timeout", Duration.class,
+                        Duration.ofSeconds(30));
+                return new ConnectionLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+            }
+        };
+    }
+}
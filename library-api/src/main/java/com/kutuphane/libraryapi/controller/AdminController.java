@@ -1,5 +1,12 @@
 package com.kutuphane.libraryapi.controller;
 
+import com.kutuphane.libraryapi.exception.ServiceUnavailableException;
+import com.kutuphane.libraryapi.search.OwnershipIndex;
+import com.kutuphane.libraryapi.service.GoogleBooksService;
+import com.kutuphane.libraryapi.service.PasswordHashingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import java.util.Map;
 import java.util.HashMap;
@@ -10,6 +17,15 @@ import java.util.ArrayList;
 @RequestMapping("/api/admin")
 public class AdminController {
     
+    @Autowired
+    private GoogleBooksService googleBooksService;
+    
+    @Autowired
+    private OwnershipIndex ownershipIndex;
+    
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
     @GetMapping("/test")
     public Map<String, Object> test() {
         Map<String, Object> response = new HashMap<>();
@@ -41,4 +57,90 @@ public class AdminController {
         
         return users;
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/google-books-cache")
+    public ResponseEntity<Map<String, Object>> getGoogleBooksCacheStats(Authentication authentication) {
+        ResponseEntity<Map<String, Object>> denied = requireAdmin(authentication);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(googleBooksService.getCacheStats());
+    }
+    
+    @GetMapping("/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats(Authentication authentication) {
+        ResponseEntity<Map<String, Object>> denied = requireAdmin(authentication);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(passwordHashingService.getStats());
+    }
+    
+    @GetMapping("/ownership/stats")
+    public ResponseEntity<Map<String, Object>> getOwnershipStats(Authentication authentication) {
+        ResponseEntity<Map<String, Object>> denied = requireAdmin(authentication);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(ownershipIndex.getStats());
+    }
+    
+    // Kitaba sahip kullanıcı sayısı; birden fazla id verilirse hepsine sahip olanlar sayılır
+    @GetMapping("/ownership/owners")
+    public ResponseEntity<Map<String, Object>> getOwnerCount(@RequestParam List<Long> bookIds,
+                                                             Authentication authentication) {
+        ResponseEntity<Map<String, Object>> denied = requireAdmin(authentication);
+        if (denied != null) {
+            return denied;
+        }
+        requireOwnershipIndex();
+        Map<String, Object> response = new HashMap<>();
+        response.put("bookIds", bookIds);
+        response.put("ownerCount", bookIds.size() == 1
+                ? ownershipIndex.ownerCount(bookIds.get(0))
+                : ownershipIndex.ownersOfAll(bookIds));
+        return ResponseEntity.ok(response);
+    }
+    
+    // İki kullanıcının ortak kitap sayısı kullanıcı verisi açığa çıkardığından yalnızca yöneticiye açık
+    @GetMapping("/ownership/common")
+    public ResponseEntity<Map<String, Object>> getCommonBookCount(@RequestParam Long userA, @RequestParam Long userB,
+                                                                  Authentication authentication) {
+        ResponseEntity<Map<String, Object>> denied = requireAdmin(authentication);
+        if (denied != null) {
+            return denied;
+        }
+        requireOwnershipIndex();
+        Map<String, Object> response = new HashMap<>();
+        response.put("userA", userA);
+        response.put("userB", userB);
+        response.put("commonBooks", ownershipIndex.commonBookCount(userA, userB));
+        return ResponseEntity.ok(response);
+    }
+
+    // Yönetici değilse 401/403 yanıtı, yönetici ise null
+    private ResponseEntity<Map<String, Object>> requireAdmin(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getName())) {
+            return error(401, "User not authenticated");
+        }
+        // Rol hem oturum hem token modunda ROLE_<rol> yetkisi olarak taşınır
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        return admin ? null : error(403, "Admin role required");
+    }
+
+    // İndeks kurulurken sayılar eksik olur; gerçek değer gibi döndürmek yerine 503
+    private void requireOwnershipIndex() {
+        if (!ownershipIndex.isReady()) {
+            throw new ServiceUnavailableException("Sahiplik indeksi henüz hazır değil");
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> error(int status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        return ResponseEntity.status(status).body(response);
+    }
+}
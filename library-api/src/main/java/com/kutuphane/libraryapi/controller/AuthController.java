@@ -1,8 +1,15 @@
 package com.kutuphane.libraryapi.controller;
 
+import com.kutuphane.libraryapi.config.SecurityConfig;
+import com.kutuphane.libraryapi.exception.ServiceUnavailableException;
 import com.kutuphane.libraryapi.model.User;
+import com.kutuphane.libraryapi.security.SessionTokenService;
+import com.kutuphane.libraryapi.security.StatelessTokenFilter;
 import com.kutuphane.libraryapi.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -10,7 +17,10 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import java.time.Duration;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Optional;
@@ -24,6 +34,15 @@ public class AuthController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private SessionTokenService sessionTokenService;
+    
+    @Value("${" + SecurityConfig.SESSION_MODE_PROPERTY + ":stateful}")
+    private String sessionMode;
+    
+    @Value("${server.servlet.session.cookie.secure:false}")
+    private boolean secureCookie;
+    
     @PostMapping("/register")
     public ResponseEntity<Map<String, Object>> register(@RequestBody RegisterRequest request) {
         Map<String, Object> response = new HashMap<>();
@@ -34,6 +53,9 @@ public class AuthController {
             response.put("message", "User registered successfully");
             response.put("username", user.getUsername());
             return ResponseEntity.ok(response);
+        } catch (ServiceUnavailableException e) {
+            // Parola havuzu dolu: 503 olarak GlobalExceptionHandler'a bırak
+            throw e;
         } catch (RuntimeException e) {
             response.put("success", false);
             response.put("message", e.getMessage());
@@ -42,7 +64,9 @@ public class AuthController {
     }
     
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody LoginRequest request, HttpSession session) {
+    public ResponseEntity<Map<String, Object>> login(@RequestBody LoginRequest request,
+                                                     HttpServletRequest httpRequest,
+                                                     HttpServletResponse httpResponse) {
         Map<String, Object> response = new HashMap<>();
         
         boolean isAuthenticated = userService.authenticateUser(request.getUsername(), request.getPassword());
@@ -52,18 +76,27 @@ public class AuthController {
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
                 
-                // Set session attributes
-                session.setAttribute("userId", user.getId());
-                session.setAttribute("username", user.getUsername());
-                session.setAttribute("role", user.getRole().toString());
-                
-                // Set Spring Security context
-                Authentication authentication = new UsernamePasswordAuthenticationToken(
-                    user.getUsername(),
-                    null,
-                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
-                );
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (isStateless()) {
+                    // Signed token instead of server-side session state
+                    String token = sessionTokenService.issue(user);
+                    httpResponse.addHeader(HttpHeaders.SET_COOKIE,
+                        tokenCookie(token, sessionTokenService.getTtl()).toString());
+                    response.put("token", token);
+                } else {
+                    // Set session attributes
+                    HttpSession session = httpRequest.getSession();
+                    session.setAttribute("userId", user.getId());
+                    session.setAttribute("username", user.getUsername());
+                    session.setAttribute("role", user.getRole().toString());
+                    
+                    // Set Spring Security context
+                    Authentication authentication = new UsernamePasswordAuthenticationToken(
+                        user.getUsername(),
+                        null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
+                    );
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
                 
                 response.put("success", true);
                 response.put("message", "Login successful");
@@ -79,10 +112,19 @@ public class AuthController {
     }
     
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, Object>> logout(HttpSession session) {
+    public ResponseEntity<Map<String, Object>> logout(HttpServletRequest httpRequest,
+                                                      HttpServletResponse httpResponse) {
         Map<String, Object> response = new HashMap<>();
         
-        session.invalidate();
+        if (isStateless()) {
+            sessionTokenService.revoke(StatelessTokenFilter.resolveToken(httpRequest));
+            httpResponse.addHeader(HttpHeaders.SET_COOKIE, tokenCookie("", Duration.ZERO).toString());
+        } else {
+            HttpSession session = httpRequest.getSession(false);
+            if (session != null) {
+                session.invalidate();
+            }
+        }
         response.put("success", true);
         response.put("message", "Logout successful");
         
@@ -90,24 +132,51 @@ public class AuthController {
     }
     
     @GetMapping("/me")
-    public ResponseEntity<Map<String, Object>> getCurrentUser(HttpSession session) {
+    public ResponseEntity<Map<String, Object>> getCurrentUser(HttpServletRequest httpRequest) {
         Map<String, Object> response = new HashMap<>();
         
-        // Check both session and security context
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = (String) session.getAttribute("username");
+        boolean authenticated = authentication != null && authentication.isAuthenticated()
+            && !authentication.getName().equals("anonymousUser");
         
-        if (username != null && authentication != null && authentication.isAuthenticated() 
-            && !authentication.getName().equals("anonymousUser")) {
-            response.put("success", true);
-            response.put("username", username);
-            response.put("role", session.getAttribute("role"));
-            return ResponseEntity.ok(response);
+        if (isStateless()) {
+            // Token claims were verified by StatelessTokenFilter
+            if (authenticated && authentication.getDetails() instanceof SessionTokenService.TokenClaims claims) {
+                response.put("success", true);
+                response.put("username", claims.username());
+                response.put("role", claims.role());
+                return ResponseEntity.ok(response);
+            }
         } else {
-            response.put("success", false);
-            response.put("message", "Not authenticated");
-            return ResponseEntity.status(401).body(response);
+            // Check both session and security context
+            HttpSession session = httpRequest.getSession(false);
+            String username = session != null ? (String) session.getAttribute("username") : null;
+            
+            if (username != null && authenticated) {
+                response.put("success", true);
+                response.put("username", username);
+                response.put("role", session.getAttribute("role"));
+                return ResponseEntity.ok(response);
+            }
         }
+        
+        response.put("success", false);
+        response.put("message", "Not authenticated");
+        return ResponseEntity.status(401).body(response);
+    }
+    
+    private boolean isStateless() {
+        return "stateless".equalsIgnoreCase(sessionMode);
+    }
+    
+    private ResponseCookie tokenCookie(String value, Duration maxAge) {
+        return ResponseCookie.from(StatelessTokenFilter.COOKIE_NAME, value)
+            .httpOnly(true)
+            .secure(secureCookie)
+            .sameSite("Lax")
+            .path("/")
+            .maxAge(maxAge)
+            .build();
     }
     
     public static class RegisterRequest {
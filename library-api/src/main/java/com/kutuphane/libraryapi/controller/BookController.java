@@ -1,37 +1,78 @@
 package com.kutuphane.libraryapi.controller;
 
+import com.kutuphane.libraryapi.dto.BookLookupRequest;
+import com.kutuphane.libraryapi.dto.BookLookupResult;
+import com.kutuphane.libraryapi.dto.BookPage;
+import com.kutuphane.libraryapi.dto.BookSummary;
+import com.kutuphane.libraryapi.dto.BulkResult;
 import com.kutuphane.libraryapi.model.Book;
 import com.kutuphane.libraryapi.service.BookService;
+import com.kutuphane.libraryapi.service.CatalogVersion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
 
     private final BookService bookService;
+    private final CatalogVersion catalogVersion;
 
     @Autowired
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, CatalogVersion catalogVersion) {
         this.bookService = bookService;
+        this.catalogVersion = catalogVersion;
     }
 
-    // Tüm kitapları getir
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Kitapları sayfa sayfa getir (keyset); sonraki sayfanın imleci X-Next-Cursor başlığında döner
     @GetMapping
-    public ResponseEntity<List<Book>> getAllBooks() {
-        List<Book> books = bookService.getAllBooks();
-        return new ResponseEntity<>(books, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAllBooks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String fields) {
+        Set<String> selected = BookFields.parse(fields);
+        BookPage page = bookService.getBooksPage(cursor, size, sort);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.set(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        // ETag set on the ResponseEntity: a matching If-None-Match gets 304 before Jackson runs
+        headers.setETag(BookEtags.forList(page.getContent()));
+        long lastModified = BookEtags.lastModified(page.getContent());
+        if (lastModified > 0) {
+            headers.setLastModified(lastModified);
+        }
+        headers.setCacheControl(CacheControl.noCache());
+        return new ResponseEntity<>(BookFields.select(page.getContent(), selected), headers, HttpStatus.OK);
     }
 
-    // ID'ye göre kitap getir
+    // ID'ye göre kitap getir; koşullu isteklerde varlık yüklenmeden 304 döner
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
+    public ResponseEntity<Book> getBookById(@PathVariable Long id, WebRequest request) {
+        Optional<LocalDateTime> updatedAt = bookService.getBookLastModified(id);
+        if (updatedAt.isPresent()
+                && request.checkNotModified(BookEtags.forBook(id, updatedAt.get()),
+                                            BookEtags.toEpochMillis(updatedAt.get()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         Book book = bookService.getBookById(id);
-        return new ResponseEntity<>(book, HttpStatus.OK);
+        return withValidators(book);
     }
 
     // Yeni kitap ekle
@@ -41,6 +82,13 @@ public class BookController {
         return new ResponseEntity<>(newBook, HttpStatus.CREATED);
     }
 
+    // Toplu kitap ekle (ISBN / Google Books ID'ye göre tekilleştirilir)
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult> createBooks(@RequestBody List<Book> books) {
+        BulkResult result = bookService.createBooks(books);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     // Kitap güncelle
     @PutMapping("/{id}")
     public ResponseEntity<Book> updateBook(@PathVariable Long id, @RequestBody Book book) {
@@ -57,22 +105,85 @@ public class BookController {
 
     // Yazara göre kitap ara
     @GetMapping("/search/author")
-    public ResponseEntity<List<Book>> getBooksByAuthor(@RequestParam String author) {
-        List<Book> books = bookService.findBooksByAuthor(author);
-        return new ResponseEntity<>(books, HttpStatus.OK);
+    public ResponseEntity<List<?>> getBooksByAuthor(@RequestParam String author,
+                                                @RequestParam(required = false) String fields,
+                                                WebRequest request) {
+        Set<String> selected = BookFields.parse(fields);
+        if (request.checkNotModified(catalogVersion.getEtag(), catalogVersion.getLastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        List<BookSummary> books = bookService.findBooksByAuthor(author);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(BookFields.select(books, selected));
     }
 
     // Başlığa göre kitap ara
     @GetMapping("/search/title")
-    public ResponseEntity<List<Book>> getBooksByTitle(@RequestParam String title) {
-        List<Book> books = bookService.findBooksByTitle(title);
-        return new ResponseEntity<>(books, HttpStatus.OK);
+    public ResponseEntity<List<?>> getBooksByTitle(@RequestParam String title,
+                                                @RequestParam(required = false) String fields,
+                                                WebRequest request) {
+        Set<String> selected = BookFields.parse(fields);
+        if (request.checkNotModified(catalogVersion.getEtag(), catalogVersion.getLastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        List<BookSummary> books = bookService.findBooksByTitle(title);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(BookFields.select(books, selected));
     }
 
     // ISBN'e göre kitap ara
     @GetMapping("/search/isbn")
     public ResponseEntity<Book> getBookByIsbn(@RequestParam String isbn) {
         Book book = bookService.findBookByIsbn(isbn);
-        return new ResponseEntity<>(book, HttpStatus.OK);
+        if (book == null) {
+            return new ResponseEntity<>(null, HttpStatus.OK);
+        }
+        return withValidators(book);
+    }
+
+    // id / ISBN / Google Books ID listeleriyle toplu arama; sonuçlar istek sırasıyla, bulunamayanlar found=false
+    @PostMapping("/lookup")
+    public ResponseEntity<Map<String, Object>> lookupBooks(@RequestBody BookLookupRequest request,
+                                                           @RequestParam(required = false) String fields) {
+        Set<String> selected = BookFields.parse(fields);
+        BookLookupResult result = bookService.lookupBooks(request);
+        Map<String, Object> response = new LinkedHashMap<>();
+        int found = putItems(response, "ids", result.ids(), selected)
+                + putItems(response, "isbns", result.isbns(), selected)
+                + putItems(response, "googleBooksIds", result.googleBooksIds(), selected);
+        response.put("found", found);
+        return ResponseEntity.ok(response);
+    }
+
+    // Kalemleri yanıta yazar, bulunanların sayısını döndürür
+    private static int putItems(Map<String, Object> response, String name,
+                                List<? extends BookLookupResult.Item<?>> items, Set<String> fields) {
+        if (items == null) {
+            return 0;
+        }
+        int found = 0;
+        List<Map<String, Object>> rendered = new ArrayList<>(items.size());
+        for (BookLookupResult.Item<?> item : items) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("key", item.key());
+            entry.put("found", item.found());
+            if (item.found()) {
+                entry.put("book", fields == null ? item.book() : item.book().select(fields));
+                found++;
+            }
+            rendered.add(entry);
+        }
+        response.put(name, rendered);
+        return found;
+    }
+
+    // ETag / Last-Modified başlıklarıyla yanıt; eşleşen koşullu isteğe Spring 304 döner
+    private ResponseEntity<Book> withValidators(Book book) {
+        if (book.getUpdatedAt() == null) {
+            return new ResponseEntity<>(book, HttpStatus.OK);
+        }
+        return ResponseEntity.ok()
+                .eTag(BookEtags.forBook(book.getId(), book.getUpdatedAt()))
+                .lastModified(BookEtags.toEpochMillis(book.getUpdatedAt()))
+                .cacheControl(CacheControl.noCache())
+                .body(book);
     }
 }
@@ -0,0 +1,54 @@
+package com.kutuphane.libraryapi.controller;
+
+import com.kutuphane.libraryapi.dto.BookSummary;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+// id + updatedAt'ten ETag / Last-Modified üretimi; gövde serileştirilmeden hesaplanır
+final class BookEtags {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private BookEtags() {
+    }
+
+    static String forBook(Long id, LocalDateTime updatedAt) {
+        return "\"book-" + id + "-" + toEpochMillis(updatedAt) + "\"";
+    }
+
+    // Weak ETag over the (id, updatedAt) pairs of a list response (FNV-1a)
+    static String forList(List<BookSummary> books) {
+        long hash = 0xcbf29ce484222325L;
+        for (BookSummary book : books) {
+            hash = mix(hash, book.id() != null ? book.id() : 0L);
+            hash = mix(hash, book.updatedAt() != null ? toEpochMillis(book.updatedAt()) : 0L);
+        }
+        return "W/\"books-" + books.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    // Newest updatedAt in the list, or -1 when unknown
+    static long lastModified(List<BookSummary> books) {
+        long max = -1;
+        for (BookSummary book : books) {
+            if (book.updatedAt() == null) {
+                return -1;
+            }
+            max = Math.max(max, toEpochMillis(book.updatedAt()));
+        }
+        return max;
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,48 @@
+package com.kutuphane.libraryapi.controller;
+
+import com.kutuphane.libraryapi.dto.BookSummary;
+import com.kutuphane.libraryapi.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// fields=id,title,author gibi seyrek alan seçimi; parametre yoksa özetler olduğu gibi döner
+final class BookFields {
+
+    private BookFields() {
+    }
+
+    // Returns null when every field is wanted; id is always included
+    static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> selected = new HashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!BookSummary.fieldNames().contains(name)) {
+                throw new BadRequestException("Geçersiz alan: " + name + " (geçerli alanlar: "
+                        + String.join(",", BookSummary.fieldNames()) + ")");
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    static List<?> select(List<BookSummary> books, Set<String> fields) {
+        if (fields == null) {
+            return books;
+        }
+        List<Object> selected = new ArrayList<>(books.size());
+        for (BookSummary book : books) {
+            selected.add(book.select(fields));
+        }
+        return selected;
+    }
+}
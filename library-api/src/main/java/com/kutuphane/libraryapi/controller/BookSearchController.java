@@ -1,13 +1,19 @@
 package com.kutuphane.libraryapi.controller;
 
+import com.kutuphane.libraryapi.dto.BulkResult;
+import com.kutuphane.libraryapi.exception.ResourceNotFoundException;
+import com.kutuphane.libraryapi.service.BookSuggestService;
 import com.kutuphane.libraryapi.service.GoogleBooksService;
 import com.kutuphane.libraryapi.service.GoogleBooksService.BookSuggestion;
 import com.kutuphane.libraryapi.service.UserBookService;
 import com.kutuphane.libraryapi.model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
@@ -17,63 +23,68 @@ import java.util.HashMap;
 @RequestMapping("/api/books")
 public class BookSearchController {
     
+    private static final Logger log = LoggerFactory.getLogger(BookSearchController.class);
+    
+    private static final int MAX_COLLECTION_CHECK_IDS = 1000;
+    
     @Autowired
     private GoogleBooksService googleBooksService;
     
     @Autowired
     private UserBookService userBookService;
     
+    @Autowired
+    private BookSuggestService bookSuggestService;
+    
     @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> searchBooks(
+    public Mono<ResponseEntity<Map<String, Object>>> searchBooks(
             @RequestParam String query,
             @RequestParam(defaultValue = "10") int maxResults) {
         
-        Map<String, Object> response = new HashMap<>();
-        
-        try {
-            // Validate query length
-            if (query == null || query.trim().length() < 3) {
-                response.put("success", false);
-                response.put("message", "Query must be at least 3 characters long");
-                response.put("suggestions", List.of());
-                return ResponseEntity.badRequest().body(response);
-            }
-            
-            // Search books
-            List<BookSuggestion> suggestions = googleBooksService.searchBooks(query, maxResults);
-            
-            response.put("success", true);
-            response.put("query", query.trim());
-            response.put("count", suggestions.size());
-            response.put("suggestions", suggestions);
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
+        // Validate query length
+        if (query == null || query.trim().length() < 3) {
+            Map<String, Object> response = new HashMap<>();
             response.put("success", false);
-            response.put("message", "Error searching books: " + e.getMessage());
+            response.put("message", "Query must be at least 3 characters long");
             response.put("suggestions", List.of());
-            return ResponseEntity.status(500).body(response);
+            return Mono.just(ResponseEntity.badRequest().body(response));
         }
+        
+        // Search books without holding the request thread
+        return googleBooksService.searchBooksAsync(query, maxResults)
+            .map(suggestions -> {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("query", query.trim());
+                response.put("count", suggestions.size());
+                response.put("suggestions", suggestions);
+                return ResponseEntity.ok(response);
+            })
+            .onErrorResume(e -> {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", false);
+                response.put("message", "Error searching books: " + e.getMessage());
+                response.put("suggestions", List.of());
+                return Mono.just(ResponseEntity.status(500).body(response));
+            });
     }
     
     @GetMapping("/suggest")
-    public ResponseEntity<List<BookSuggestion>> getSuggestions(
+    public Mono<ResponseEntity<List<BookSuggestion>>> getSuggestions(
             @RequestParam String query,
             @RequestParam(defaultValue = "5") int limit) {
         
-        try {
-            if (query == null || query.trim().length() < 3) {
-                return ResponseEntity.ok(List.of());
-            }
-            
-            List<BookSuggestion> suggestions = googleBooksService.searchBooks(query, limit);
-            return ResponseEntity.ok(suggestions);
-            
-        } catch (Exception e) {
-            System.err.println("Error getting suggestions: " + e.getMessage());
-            return ResponseEntity.ok(List.of());
+        if (query == null || query.trim().length() < 3) {
+            return Mono.just(ResponseEntity.ok(List.<BookSuggestion>of()));
         }
+        
+        // Yerel katalog yeterliyse Google Books'a gidilmez
+        return bookSuggestService.suggest(query, limit)
+            .map(ResponseEntity::ok)
+            .onErrorResume(e -> {
+                log.warn("Error getting suggestions for query '{}'", query, e);
+                return Mono.just(ResponseEntity.ok(List.<BookSuggestion>of()));
+            });
     }
     
     @GetMapping("/test-search")
@@ -127,6 +138,10 @@ public class BookSearchController {
             
             return ResponseEntity.ok(response);
             
+        } catch (ResourceNotFoundException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Failed to add book to collection: " + e.getMessage());
@@ -134,6 +149,24 @@ public class BookSearchController {
         }
     }
     
+    // Toplu ekleme; hatalı istekler GlobalExceptionHandler'a bırakılır
+    @PostMapping("/add-to-collection/bulk")
+    public ResponseEntity<?> addBooksToCollection(
+            @RequestBody List<BookSuggestion> bookSuggestions,
+            Authentication authentication) {
+        
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getName())) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "User not authenticated");
+            return ResponseEntity.status(401).body(response);
+        }
+        
+        BulkResult result = userBookService.addBooksToUserCollection(authentication.getName(), bookSuggestions);
+        return ResponseEntity.ok(result);
+    }
+    
     @GetMapping("/check-collection")
     public ResponseEntity<Map<String, Object>> checkBookInCollection(
             @RequestParam String googleBooksId,
@@ -163,4 +196,52 @@ public class BookSearchController {
             return ResponseEntity.ok(response);
         }
     }
+    
+    @PostMapping("/check-collection")
+    public ResponseEntity<Map<String, Object>> checkBooksInCollection(
+            @RequestBody CollectionCheckRequest request,
+            Authentication authentication) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        if (request == null || request.getGoogleBooksIds() == null) {
+            response.put("success", false);
+            response.put("message", "googleBooksIds is required");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (request.getGoogleBooksIds().size() > MAX_COLLECTION_CHECK_IDS) {
+            response.put("success", false);
+            response.put("message", "At most " + MAX_COLLECTION_CHECK_IDS + " ids can be checked at once");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        try {
+            if (authentication == null || !authentication.isAuthenticated()) {
+                response.put("success", false);
+                response.put("inCollection", Map.of());
+                return ResponseEntity.ok(response);
+            }
+            
+            String username = authentication.getName();
+            Map<String, Boolean> inCollection = userBookService.areBooksInUserCollection(username, request.getGoogleBooksIds());
+            
+            response.put("success", true);
+            response.put("inCollection", inCollection);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("inCollection", Map.of());
+            response.put("message", "Error checking collection: " + e.getMessage());
+            return ResponseEntity.ok(response);
+        }
+    }
+    
+    public static class CollectionCheckRequest {
+        private List<String> googleBooksIds;
+        
+        public List<String> getGoogleBooksIds() { return googleBooksIds; }
+        public void setGoogleBooksIds(List<String> googleBooksIds) { this.googleBooksIds = googleBooksIds; }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.kutuphane.libraryapi.controller;
+
+import com.kutuphane.libraryapi.dto.BookPage;
+import com.kutuphane.libraryapi.service.UserBookService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/collection")
+public class CollectionController {
+
+    @Autowired
+    private UserBookService userBookService;
+
+    // Oturumdaki kullanıcının koleksiyonu (keyset sayfalama, imleç X-Next-Cursor başlığında)
+    @GetMapping
+    public ResponseEntity<List<?>> getCollection(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields,
+            Authentication authentication) {
+        if (!isAuthenticated(authentication)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        Set<String> selected = BookFields.parse(fields);
+        BookPage page = userBookService.getUserCollectionPage(authentication.getName(), cursor, size);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.set(BookController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return new ResponseEntity<>(BookFields.select(page.getContent(), selected), headers, HttpStatus.OK);
+    }
+
+    // Katalogdaki bir kitabı koleksiyona ekle (idempotent)
+    @PutMapping("/{bookId}")
+    public ResponseEntity<Map<String, Object>> addToCollection(@PathVariable Long bookId,
+                                                               Authentication authentication) {
+        if (!isAuthenticated(authentication)) {
+            return unauthorized();
+        }
+        boolean added = userBookService.addBookToUserCollection(authentication.getName(), bookId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("bookId", bookId);
+        response.put("added", added);
+        return ResponseEntity.ok(response);
+    }
+
+    // Kitabı koleksiyondan çıkar (idempotent)
+    @DeleteMapping("/{bookId}")
+    public ResponseEntity<Map<String, Object>> removeFromCollection(@PathVariable Long bookId,
+                                                                    Authentication authentication) {
+        if (!isAuthenticated(authentication)) {
+            return unauthorized();
+        }
+        boolean removed = userBookService.removeBookFromUserCollection(authentication.getName(), bookId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("bookId", bookId);
+        response.put("removed", removed);
+        return ResponseEntity.ok(response);
+    }
+
+    private boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && !"anonymousUser".equals(authentication.getName());
+    }
+
+    private ResponseEntity<Map<String, Object>> unauthorized() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "User not authenticated");
+        return ResponseEntity.status(401).body(response);
+    }
+}
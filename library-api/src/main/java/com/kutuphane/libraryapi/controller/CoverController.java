@@ -0,0 +1,99 @@
+package com.kutuphane.libraryapi.controller;
+
+import com.kutuphane.libraryapi.service.CoverService;
+import com.kutuphane.libraryapi.service.CoverService.Cover;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+public class CoverController {
+
+    // Tomcat sendfile istek öznitelikleri (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Aynı adres aynı görseli verir; kitap kapağı güncellenebilir, yer tutucular hiç değişmez
+    private static final CacheControl URL_COVER_CACHE = CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic();
+    private static final CacheControl BOOK_COVER_CACHE = CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic();
+    private static final CacheControl PLACEHOLDER_CACHE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    // Kaynak geçici olarak erişilemezse kısa süre sonra yeniden denensin
+    private static final CacheControl FALLBACK_CACHE = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+
+    @Autowired
+    private CoverService coverService;
+
+    // Google Books kapak adresi için vekil: /api/covers?url=...&size=small|medium|large
+    @GetMapping("/api/covers")
+    public void getCover(@RequestParam String url,
+                         @RequestParam(required = false) String size,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Cover cover = coverService.forUrl(url, CoverService.Size.fromKey(size));
+        send(cover, cover.placeholder() ? FALLBACK_CACHE : URL_COVER_CACHE, request, response);
+    }
+
+    // Katalogdaki kitabın kapağı
+    @GetMapping("/api/books/{id}/cover")
+    public void getBookCover(@PathVariable Long id,
+                             @RequestParam(required = false) String size,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        Cover cover = coverService.forBook(id, CoverService.Size.fromKey(size));
+        send(cover, cover.placeholder() ? FALLBACK_CACHE : BOOK_COVER_CACHE, request, response);
+    }
+
+    // Arayüzün kırık kapaklar için kullandığı yer tutucu, ör. /api/placeholder/120x180
+    @GetMapping("/api/placeholder/{width:\\d+}x{height:\\d+}")
+    public void getPlaceholder(@PathVariable int width,
+                               @PathVariable int height,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        send(coverService.placeholder(width, height), PLACEHOLDER_CACHE, request, response);
+    }
+
+    // Dosyayı yazar: Tomcat sendfile destekliyorsa dosyayı bağlayıcı gönderir, yoksa kanal yanıta aktarılır
+    private void send(Cover cover, CacheControl cacheControl, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        String etag = "\"" + cover.hash() + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        response.setContentType(cover.contentType());
+        response.setContentLengthLong(cover.length());
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat yolu kanonik biçimde ister
+            request.setAttribute(SENDFILE_FILENAME, cover.file().toFile().getCanonicalPath());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, cover.length());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(cover.file(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < cover.length()) {
+                position += channel.transferTo(position, cover.length() - position, out);
+            }
+        }
+    }
+}
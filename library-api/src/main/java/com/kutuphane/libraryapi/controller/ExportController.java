@@ -0,0 +1,89 @@
+package com.kutuphane.libraryapi.controller;
+
+import com.kutuphane.libraryapi.service.CatalogExportService;
+import com.kutuphane.libraryapi.service.CatalogExportService.Format;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    // Tüm kataloğu akış olarak dışa aktar (NDJSON veya JSON dizi)
+    @GetMapping("/books")
+    public void exportBooks(@RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        Format exportFormat = parseFormat(format);
+        try (OutputStream out = openStream(request, response, exportFormat, "books")) {
+            catalogExportService.exportBooks(out, exportFormat);
+        }
+    }
+
+    // Kullanıcı-kitap ilişkilerini akış olarak dışa aktar (yalnızca yönetici)
+    @GetMapping("/user-books")
+    public void exportUserBooks(@RequestParam(defaultValue = "ndjson") String format,
+                                Authentication authentication,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        if (!isAuthenticated(authentication)) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "User not authenticated");
+            return;
+        }
+        if (!isAdmin(authentication)) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "Admin role required");
+            return;
+        }
+        Format exportFormat = parseFormat(format);
+        try (OutputStream out = openStream(request, response, exportFormat, "user-books")) {
+            catalogExportService.exportUserBooks(out, exportFormat);
+        }
+    }
+
+    private boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && !"anonymousUser".equals(authentication.getName());
+    }
+
+    // Rol hem oturum hem token modunda ROLE_<rol> yetkisi olarak taşınır
+    private boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    private Format parseFormat(String format) {
+        return "json".equalsIgnoreCase(format) ? Format.JSON : Format.NDJSON;
+    }
+
+    // Writes go straight to the servlet stream, so a slow client blocks the cursor (back-pressure)
+    private OutputStream openStream(HttpServletRequest request, HttpServletResponse response,
+                                    Format format, String name) throws IOException {
+        String extension = format == Format.JSON ? "json" : "ndjson";
+        response.setContentType(format == Format.JSON ? MediaType.APPLICATION_JSON_VALUE : NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + extension + "\"");
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            return new GZIPOutputStream(response.getOutputStream(), 64 * 1024);
+        }
+        return response.getOutputStream();
+    }
+}
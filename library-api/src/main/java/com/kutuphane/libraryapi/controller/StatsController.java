@@ -0,0 +1,23 @@
+package com.kutuphane.libraryapi.controller;
+
+import com.kutuphane.libraryapi.service.CatalogStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    @Autowired
+    private CatalogStatsService catalogStatsService;
+
+    // Katalog ve koleksiyon istatistikleri; bellekteki sayaçlardan döner
+    @GetMapping
+    public Map<String, Object> getStats() {
+        return catalogStatsService.getStats();
+    }
+}
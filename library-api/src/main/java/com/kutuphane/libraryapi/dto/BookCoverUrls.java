@@ -0,0 +1,5 @@
+package com.kutuphane.libraryapi.dto;
+
+// Kitabın kayıtlı kapak adresleri (yalnızca bu dört sütun okunur)
+public record BookCoverUrls(String smallThumbnail, String thumbnail, String mediumImage, String largeImage) {
+}
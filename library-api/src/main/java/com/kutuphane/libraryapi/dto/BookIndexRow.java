@@ -0,0 +1,5 @@
+package com.kutuphane.libraryapi.dto;
+
+// Arama indeksini kurmak için yalnızca indekslenen sütunlar (açıklama ve görseller okunmaz)
+public record BookIndexRow(Long id, String title, String author, String publisher, String isbn) {
+}
@@ -0,0 +1,35 @@
+package com.kutuphane.libraryapi.dto;
+
+import java.util.List;
+
+// Toplu arama isteği; listelerden herhangi biri ya da birkaçı verilebilir
+public class BookLookupRequest {
+
+    private List<Long> ids;
+    private List<String> isbns;
+    private List<String> googleBooksIds;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getIsbns() {
+        return isbns;
+    }
+
+    public void setIsbns(List<String> isbns) {
+        this.isbns = isbns;
+    }
+
+    public List<String> getGoogleBooksIds() {
+        return googleBooksIds;
+    }
+
+    public void setGoogleBooksIds(List<String> googleBooksIds) {
+        this.googleBooksIds = googleBooksIds;
+    }
+}
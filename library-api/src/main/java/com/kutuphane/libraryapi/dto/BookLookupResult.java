@@ -0,0 +1,16 @@
+package com.kutuphane.libraryapi.dto;
+
+import java.util.List;
+
+// Toplu arama sonucu: her liste istekteki sırayı izler, bulunamayan anahtarın book alanı null; istenmeyen listeler null
+public record BookLookupResult(List<Item<Long>> ids,
+                               List<Item<String>> isbns,
+                               List<Item<String>> googleBooksIds) {
+
+    public record Item<K>(K key, BookSummary book) {
+
+        public boolean found() {
+            return book != null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.kutuphane.libraryapi.dto;
+
+import java.util.List;
+
+// Keyset sayfalama sonucu: sayfadaki kitaplar ve bir sonraki sayfanın imleci
+public class BookPage {
+
+    private final List<BookSummary> content;
+    private final String nextCursor;
+
+    public BookPage(List<BookSummary> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BookSummary> getContent() {
+        return content;
+    }
+
+    // Son sayfada null döner
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
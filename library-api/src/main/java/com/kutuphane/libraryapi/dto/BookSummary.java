@@ -0,0 +1,59 @@
+package com.kutuphane.libraryapi.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Liste görünümü: JPQL constructor ifadesiyle yalnızca bu sütunlar seçilir (açıklama, büyük kapaklar ve kullanıcılar yok)
+public record BookSummary(Long id,
+                          String title,
+                          String author,
+                          String isbn,
+                          LocalDate publishDate,
+                          Integer pageCount,
+                          String publisher,
+                          String language,
+                          String googleBooksId,
+                          String smallThumbnail,
+                          String thumbnail,
+                          LocalDateTime createdAt,
+                          LocalDateTime updatedAt) {
+
+    // fields= parametresinde kabul edilen alanlar, yanıt sırasıyla
+    private static final Map<String, Function<BookSummary, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", BookSummary::id);
+        FIELDS.put("title", BookSummary::title);
+        FIELDS.put("author", BookSummary::author);
+        FIELDS.put("isbn", BookSummary::isbn);
+        FIELDS.put("publishDate", BookSummary::publishDate);
+        FIELDS.put("pageCount", BookSummary::pageCount);
+        FIELDS.put("publisher", BookSummary::publisher);
+        FIELDS.put("language", BookSummary::language);
+        FIELDS.put("googleBooksId", BookSummary::googleBooksId);
+        FIELDS.put("smallThumbnail", BookSummary::smallThumbnail);
+        FIELDS.put("thumbnail", BookSummary::thumbnail);
+        FIELDS.put("createdAt", BookSummary::createdAt);
+        FIELDS.put("updatedAt", BookSummary::updatedAt);
+    }
+
+    public static Set<String> fieldNames() {
+        return FIELDS.keySet();
+    }
+
+    // Yalnızca istenen alanlar; null değerler de anahtarıyla yazılır
+    public Map<String, Object> select(Collection<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Function<BookSummary, Object>> field : FIELDS.entrySet()) {
+            if (fields.contains(field.getKey())) {
+                values.put(field.getKey(), field.getValue().apply(this));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,39 @@
+package com.kutuphane.libraryapi.dto;
+
+// Toplu işlemde tek bir kalemin sonucu; index istekteki sırayı gösterir
+public class BulkItemResult {
+
+    public enum Status {
+        CREATED, ALREADY_EXISTS, DUPLICATE_IN_BATCH, INVALID,
+        // Koleksiyona toplu eklemede
+        ADDED, ALREADY_IN_COLLECTION
+    }
+
+    private final int index;
+    private final Status status;
+    private final Long bookId;
+    private final String message;
+
+    public BulkItemResult(int index, Status status, Long bookId, String message) {
+        this.index = index;
+        this.status = status;
+        this.bookId = bookId;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,32 @@
+package com.kutuphane.libraryapi.dto;
+
+import java.util.List;
+
+// Toplu işlem özeti ve kalem bazında sonuçlar (istek sırasıyla)
+public class BulkResult {
+
+    private final int total;
+    private final int succeeded;
+    private final List<BulkItemResult> items;
+
+    public BulkResult(List<BulkItemResult> items) {
+        this.total = items.size();
+        this.succeeded = (int) items.stream()
+                .filter(item -> item.getStatus() == BulkItemResult.Status.CREATED
+                        || item.getStatus() == BulkItemResult.Status.ADDED)
+                .count();
+        this.items = items;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public List<BulkItemResult> getItems() {
+        return items;
+    }
+}
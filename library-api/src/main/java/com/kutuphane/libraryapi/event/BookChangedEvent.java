@@ -0,0 +1,39 @@
+package com.kutuphane.libraryapi.event;
+
+import com.kutuphane.libraryapi.model.Book;
+
+// Bir kitap eklendiğinde, güncellendiğinde veya silindiğinde yayınlanır
+public class BookChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Book book;
+
+    public BookChangedEvent(Type type, Book book) {
+        this.type = type;
+        this.book = book;
+    }
+
+    public static BookChangedEvent created(Book book) {
+        return new BookChangedEvent(Type.CREATED, book);
+    }
+
+    public static BookChangedEvent updated(Book book) {
+        return new BookChangedEvent(Type.UPDATED, book);
+    }
+
+    public static BookChangedEvent deleted(Book book) {
+        return new BookChangedEvent(Type.DELETED, book);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+}
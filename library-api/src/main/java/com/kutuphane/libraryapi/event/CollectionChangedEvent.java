@@ -0,0 +1,35 @@
+package com.kutuphane.libraryapi.event;
+
+// Bir kitap kullanıcının koleksiyonuna eklendiğinde veya çıkarıldığında yayınlanır
+public class CollectionChangedEvent {
+
+    private final Long userId;
+    private final Long bookId;
+    private final boolean added;
+
+    public CollectionChangedEvent(Long userId, Long bookId, boolean added) {
+        this.userId = userId;
+        this.bookId = bookId;
+        this.added = added;
+    }
+
+    public static CollectionChangedEvent added(Long userId, Long bookId) {
+        return new CollectionChangedEvent(userId, bookId, true);
+    }
+
+    public static CollectionChangedEvent removed(Long userId, Long bookId) {
+        return new CollectionChangedEvent(userId, bookId, false);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public boolean isAdded() {
+        return added;
+    }
+}
@@ -1,6 +1,9 @@
 package com.kutuphane.libraryapi.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -8,8 +11,13 @@ import java.util.HashSet;
 
 @Entity
 @Table(name = "books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CACHE_REGION)
 public class Book {
 
+    // İkinci seviye önbellek bölgesi (boyut sınırı EntityCacheConfig'te)
+    public static final String CACHE_REGION = "books";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -52,6 +60,8 @@ public class Book {
     private String largeImage;
 
     // User collections - many-to-many relationship
+    // Serileştirilmez: lazy koleksiyon ek sorgu açar ve User.books üzerinden döngü oluşturur
+    @JsonIgnore
     @ManyToMany(mappedBy = "books", fetch = FetchType.LAZY)
     private Set<User> users = new HashSet<>();
 
@@ -1,18 +1,31 @@
 package com.kutuphane.libraryapi.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.HashSet;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.USERNAME_CACHE_REGION)
 public class User {
     
+    // İkinci seviye önbellek bölgeleri (boyut sınırları EntityCacheConfig'te)
+    public static final String CACHE_REGION = "users";
+    public static final String USERNAME_CACHE_REGION = "users-by-username";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Doğal anahtar: kayıttan sonra değişmez, username -> id eşlemesi önbelleğe alınır
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String username;
     
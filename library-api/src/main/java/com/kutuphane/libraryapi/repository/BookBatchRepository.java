@@ -0,0 +1,207 @@
+package com.kutuphane.libraryapi.repository;
+
+import com.kutuphane.libraryapi.model.Book;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+// Toplu kitap yazma ve aramaları için düz JDBC; IDENTITY id'ler tek sorguda sequence'tan ayrılır,
+// satırlar parça başına tek INSERT ... SELECT FROM unnest(dizi) ile yazılır
+@Repository
+public class BookBatchRepository {
+
+    static final int CHUNK_SIZE = 500;
+
+    // Sütun sınırları (books tablosu)
+    static final int ISBN_LENGTH = 13;
+    static final int VARCHAR_LENGTH = 255;
+
+    // Aynı google_books_id'yi eşzamanlı başka bir istek eklediyse satır atlanır; RETURNING eklenenleri verir
+    private static final String INSERT_SQL =
+            "INSERT INTO books (id, title, author, isbn, publish_date, page_count, google_books_id, publisher, "
+            + "description, language, small_thumbnail, thumbnail, medium_image, large_image, created_at, updated_at) "
+            + "SELECT id, title, author, isbn, publish_date::date, page_count::integer, google_books_id, publisher, "
+            + "description, language, small_thumbnail, thumbnail, medium_image, large_image, ?, ? "
+            + "FROM unnest(?::bigint[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], "
+            + "?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[]) "
+            + "AS t(id, title, author, isbn, publish_date, page_count, google_books_id, publisher, description, "
+            + "language, small_thumbnail, thumbnail, medium_image, large_image) "
+            + "ON CONFLICT (google_books_id) DO NOTHING RETURNING id";
+
+    // INSERT_SQL'deki text dizilerinin sırası
+    private static final List<Function<Book, Object>> TEXT_COLUMNS = List.of(
+            Book::getTitle, Book::getAuthor, Book::getIsbn, Book::getPublishDate, Book::getPageCount,
+            Book::getGoogleBooksId, Book::getPublisher, Book::getDescription, Book::getLanguage,
+            Book::getSmallThumbnail, Book::getThumbnail, Book::getMediumImage, Book::getLargeImage);
+
+    // varchar(255) sütunları; hata mesajındaki adlarıyla
+    private static final Map<String, Function<Book, String>> VARCHAR_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        VARCHAR_COLUMNS.put("title", Book::getTitle);
+        VARCHAR_COLUMNS.put("author", Book::getAuthor);
+        VARCHAR_COLUMNS.put("googleBooksId", Book::getGoogleBooksId);
+        VARCHAR_COLUMNS.put("publisher", Book::getPublisher);
+        VARCHAR_COLUMNS.put("language", Book::getLanguage);
+        VARCHAR_COLUMNS.put("smallThumbnail", Book::getSmallThumbnail);
+        VARCHAR_COLUMNS.put("thumbnail", Book::getThumbnail);
+        VARCHAR_COLUMNS.put("mediumImage", Book::getMediumImage);
+        VARCHAR_COLUMNS.put("largeImage", Book::getLargeImage);
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public BookBatchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Verilen ISBN'lerden veritabanında zaten bulunanlar
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        return findExisting("SELECT isbn FROM books WHERE isbn IN (:values)", isbns);
+    }
+
+    // Verilen Google Books ID'lerinden veritabanında zaten bulunanlar
+    public Set<String> findExistingGoogleBooksIds(Collection<String> googleBooksIds) {
+        return findExisting("SELECT google_books_id FROM books WHERE google_books_id IN (:values)", googleBooksIds);
+    }
+
+    // Verilen id'lerden veritabanında bulunanlar
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = all.subList(from, Math.min(from + CHUNK_SIZE, all.size()));
+            existing.addAll(jdbcTemplate.queryForList("SELECT id FROM books WHERE id IN (:values)",
+                    new MapSqlParameterSource("values", chunk), Long.class));
+        }
+        return existing;
+    }
+
+    // Google Books ID -> kitap id
+    public Map<String, Long> findIdsByGoogleBooksIds(Collection<String> googleBooksIds) {
+        Map<String, Long> ids = new HashMap<>();
+        List<String> all = new ArrayList<>(googleBooksIds);
+        for (int from = 0; from < all.size(); from += CHUNK_SIZE) {
+            List<String> chunk = all.subList(from, Math.min(from + CHUNK_SIZE, all.size()));
+            jdbcTemplate.query("SELECT id, google_books_id FROM books WHERE google_books_id IN (:values)",
+                    new MapSqlParameterSource("values", chunk),
+                    (RowCallbackHandler) rs -> ids.put(rs.getString("google_books_id"), rs.getLong("id")));
+        }
+        return ids;
+    }
+
+    // (başlık, yazar) çiftlerine göre kitap id'leri; anahtar titleAuthorKey, aynı çiftte en küçük id kazanır
+    public Map<String, Long> findIdsByTitleAndAuthor(Collection<String[]> titleAuthorPairs) {
+        Map<String, Long> ids = new HashMap<>();
+        List<Object[]> all = new ArrayList<>(titleAuthorPairs);
+        for (int from = 0; from < all.size(); from += CHUNK_SIZE) {
+            List<Object[]> chunk = all.subList(from, Math.min(from + CHUNK_SIZE, all.size()));
+            jdbcTemplate.query("SELECT id, title, author FROM books WHERE (title, author) IN (:pairs) ORDER BY id",
+                    new MapSqlParameterSource("pairs", chunk),
+                    (RowCallbackHandler) rs ->
+                            ids.putIfAbsent(titleAuthorKey(rs.getString("title"), rs.getString("author")), rs.getLong("id")));
+        }
+        return ids;
+    }
+
+    public static String titleAuthorKey(String title, String author) {
+        return title + '\u0000' + author;
+    }
+
+    // Kitapları tek INSERT ... SELECT unnest(dizi) ile koleksiyona ekler; yeni eklenen id'leri döndürür
+    public List<Long> insertCollectionEntries(long userId, Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.getJdbcTemplate().query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO user_books (user_id, book_id) SELECT ?, unnest(?::bigint[]) "
+                    + "ON CONFLICT DO NOTHING RETURNING book_id");
+            Array ids = con.createArrayOf("bigint", bookIds.toArray());
+            ps.setLong(1, userId);
+            ps.setArray(2, ids);
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    // Sütun sınırını aşan alan için hata mesajı, geçerliyse null.
+    // Veritabanı hatası tüm toplu eklemeyi geri alacağından kalemler önceden denetlenir
+    public static String invalidColumn(Book book) {
+        if (book.getIsbn() != null && book.getIsbn().length() > ISBN_LENGTH) {
+            return "isbn en fazla " + ISBN_LENGTH + " karakter olabilir";
+        }
+        for (Map.Entry<String, Function<Book, String>> column : VARCHAR_COLUMNS.entrySet()) {
+            String value = column.getValue().apply(book);
+            if (value != null && value.length() > VARCHAR_LENGTH) {
+                return column.getKey() + " en fazla " + VARCHAR_LENGTH + " karakter olabilir";
+            }
+        }
+        if (book.getPageCount() != null && book.getPageCount() < 0) {
+            return "pageCount negatif olamaz";
+        }
+        return null;
+    }
+
+    // Kitapları ekler, id ve zaman alanlarını atar; gerçekten eklenen id'leri döndürür
+    // (sonuçta olmayan kitabın google_books_id'sini eşzamanlı başka bir istek eklemiştir)
+    public Set<Long> insertAll(List<Book> books) {
+        if (books.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> ids = jdbcTemplate.getJdbcTemplate().queryForList(
+                "SELECT nextval(pg_get_serial_sequence('books', 'id')) FROM generate_series(1, ?)",
+                Long.class, books.size());
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            book.setId(ids.get(i));
+            book.setCreatedAt(now.toLocalDateTime());
+            book.setUpdatedAt(now.toLocalDateTime());
+        }
+        Set<Long> inserted = new HashSet<>();
+        for (int from = 0; from < books.size(); from += CHUNK_SIZE) {
+            List<Book> chunk = books.subList(from, Math.min(from + CHUNK_SIZE, books.size()));
+            inserted.addAll(jdbcTemplate.getJdbcTemplate().query(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_SQL);
+                ps.setTimestamp(1, now);
+                ps.setTimestamp(2, now);
+                ps.setArray(3, con.createArrayOf("bigint", chunk.stream().map(Book::getId).toArray()));
+                for (int c = 0; c < TEXT_COLUMNS.size(); c++) {
+                    Function<Book, Object> column = TEXT_COLUMNS.get(c);
+                    ps.setArray(4 + c, con.createArrayOf("text", chunk.stream()
+                            .map(book -> Objects.toString(column.apply(book), null))
+                            .toArray()));
+                }
+                return ps;
+            }, (rs, rowNum) -> rs.getLong(1)));
+        }
+        return inserted;
+    }
+
+    private Set<String> findExisting(String sql, Collection<String> values) {
+        Set<String> existing = new HashSet<>();
+        List<String> all = new ArrayList<>(values);
+        for (int from = 0; from < all.size(); from += CHUNK_SIZE) {
+            List<String> chunk = all.subList(from, Math.min(from + CHUNK_SIZE, all.size()));
+            existing.addAll(jdbcTemplate.queryForList(sql, new MapSqlParameterSource("values", chunk), String.class));
+        }
+        return existing;
+    }
+}
@@ -1,27 +1,80 @@
 package com.kutuphane.libraryapi.repository;
 
+import com.kutuphane.libraryapi.dto.BookCoverUrls;
+import com.kutuphane.libraryapi.dto.BookIndexRow;
+import com.kutuphane.libraryapi.dto.BookSummary;
 import com.kutuphane.libraryapi.model.Book;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
 
-    // Yazara göre kitapları bul
-    List<Book> findByAuthorContainingIgnoreCase(String author);
+    // Liste yanıtları için yalnızca BookSummary sütunları seçilir
+    String SUMMARY_SELECT = "select new com.kutuphane.libraryapi.dto.BookSummary(b.id, b.title, b.author, b.isbn, "
+            + "b.publishDate, b.pageCount, b.publisher, b.language, b.googleBooksId, b.smallThumbnail, b.thumbnail, "
+            + "b.createdAt, b.updatedAt)";
 
-    // Başlığa göre kitapları bul
-    List<Book> findByTitleContainingIgnoreCase(String title);
+    // Yazara göre kitapları bul (özet projeksiyon)
+    List<BookSummary> findSummariesByAuthorContainingIgnoreCase(String author);
 
-    // ISBN'e göre kitap bul
-    Book findByIsbn(String isbn);
+    // Başlığa göre kitapları bul (özet projeksiyon)
+    List<BookSummary> findSummariesByTitleContainingIgnoreCase(String title);
 
-    // Google Books ID'ye göre kitap bul
-    Optional<Book> findByGoogleBooksId(String googleBooksId);
+    // findByIsbn ve findByGoogleBooksId: BookRepositoryCustom (önbellekli)
 
     // Başlık ve yazara göre kitap bul
     Optional<Book> findByTitleAndAuthor(String title, String author);
+
+    // Kapak vekili için sadece görsel adresleri
+    @Query("select new com.kutuphane.libraryapi.dto.BookCoverUrls(b.smallThumbnail, b.thumbnail, b.mediumImage, "
+            + "b.largeImage) from Book b where b.id = :id")
+    Optional<BookCoverUrls> findCoverUrlsById(@Param("id") Long id);
+
+    // Koşullu GET için sadece güncellenme zamanı (varlık yüklenmez)
+    @Query("select b.updatedAt from Book b where b.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // Arama indeksi yüklemesi: id'ye göre keyset, sadece indekslenen sütunlar (varlık/L2 önbellek yok)
+    @Query("select new com.kutuphane.libraryapi.dto.BookIndexRow(b.id, b.title, b.author, b.publisher, b.isbn) "
+            + "from Book b where b.id > :id order by b.id asc")
+    List<BookIndexRow> findIndexRowsAfterId(@Param("id") Long id, Pageable pageable);
+
+    // Özet projeksiyonlar (BookSummary): liste ve arama uçları
+    @Query(SUMMARY_SELECT + " from Book b where b.id in :ids")
+    List<BookSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // isbn tekil değil; aynı ISBN'li kayıtlarda en küçük id önce gelir
+    @Query(SUMMARY_SELECT + " from Book b where b.isbn in :isbns order by b.id asc")
+    List<BookSummary> findSummariesByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    @Query(SUMMARY_SELECT + " from Book b where b.googleBooksId in :googleBooksIds")
+    List<BookSummary> findSummariesByGoogleBooksIdIn(@Param("googleBooksIds") Collection<String> googleBooksIds);
+
+    @Query(SUMMARY_SELECT + " from Book b")
+    List<BookSummary> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " from Book b where b.id > :id order by b.id asc")
+    List<BookSummary> findSummaryPageAfterIdAsc(@Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " from Book b where b.id < :id order by b.id desc")
+    List<BookSummary> findSummaryPageAfterIdDesc(@Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " from Book b where b.updatedAt > :updatedAt or (b.updatedAt = :updatedAt and b.id > :id) "
+            + "order by b.updatedAt asc, b.id asc")
+    List<BookSummary> findSummaryPageAfterUpdatedAtAsc(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                                       Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " from Book b where b.updatedAt < :updatedAt or (b.updatedAt = :updatedAt and b.id < :id) "
+            + "order by b.updatedAt desc, b.id desc")
+    List<BookSummary> findSummaryPageAfterUpdatedAtDesc(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                                        Pageable pageable);
 }
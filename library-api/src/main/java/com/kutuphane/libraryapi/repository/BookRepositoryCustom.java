@@ -0,0 +1,15 @@
+package com.kutuphane.libraryapi.repository;
+
+import com.kutuphane.libraryapi.model.Book;
+
+import java.util.Optional;
+
+// ISBN ve Google Books ID ile tekil aramalar; anahtar -> id eşlemesi önbelleğe alınır
+public interface BookRepositoryCustom {
+
+    // ISBN'e göre kitap bul
+    Book findByIsbn(String isbn);
+
+    // Google Books ID'ye göre kitap bul
+    Optional<Book> findByGoogleBooksId(String googleBooksId);
+}
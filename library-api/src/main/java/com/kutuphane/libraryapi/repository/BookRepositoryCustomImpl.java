@@ -0,0 +1,79 @@
+package com.kutuphane.libraryapi.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kutuphane.libraryapi.model.Book;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+// ISBN / Google Books ID ile arama: anahtar -> id eşlemesi Caffeine'de, kitap ikinci seviye önbellekten;
+// her isabette anahtar doğrulanır, bayat eşleme silinip veritabanına gidilir
+@Transactional(readOnly = true)
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Cache<String, Long> idsByIsbn;
+    private final Cache<String, Long> idsByGoogleBooksId;
+
+    public BookRepositoryCustomImpl(MeterRegistry meterRegistry,
+                                    @Value("${library.entity-cache.book-keys.max-size:50000}") long maxSize) {
+        this.idsByIsbn = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        this.idsByGoogleBooksId = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByIsbn, "book-ids-by-isbn");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByGoogleBooksId, "book-ids-by-google-books-id");
+    }
+
+    @Override
+    public Book findByIsbn(String isbn) {
+        return find(idsByIsbn, isbn, "isbn", Book::getIsbn).orElse(null);
+    }
+
+    @Override
+    public Optional<Book> findByGoogleBooksId(String googleBooksId) {
+        return find(idsByGoogleBooksId, googleBooksId, "googleBooksId", Book::getGoogleBooksId);
+    }
+
+    private Optional<Book> find(Cache<String, Long> ids, String key, String attribute, Function<Book, String> keyOf) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        Long cachedId = ids.getIfPresent(key);
+        if (cachedId != null) {
+            Book book = entityManager.find(Book.class, cachedId);
+            if (book != null && key.equals(keyOf.apply(book))) {
+                return Optional.of(book);
+            }
+            // Kitap silinmiş ya da anahtarı değişmiş: eşleme bayat
+            ids.invalidate(key);
+        }
+
+        // Sadece id seçilir; varlık ikinci seviye önbellekten yüklenir
+        List<Long> found = entityManager
+                .createQuery("select b.id from Book b where b." + attribute + " = :key", Long.class)
+                .setParameter("key", key)
+                .setMaxResults(2)
+                .getResultList();
+        if (found.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, found.size());
+        }
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Book book = entityManager.find(Book.class, found.get(0));
+        if (book != null) {
+            ids.put(key, book.getId());
+        }
+        return Optional.ofNullable(book);
+    }
+}
@@ -1,19 +1,60 @@
 package com.kutuphane.libraryapi.repository;
 
+import com.kutuphane.libraryapi.dto.BookSummary;
 import com.kutuphane.libraryapi.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     
-    Optional<User> findByUsername(String username);
+    // findByUsername ve findIdByUsername: UserRepositoryCustom (natural-id önbelleği)
     
     Optional<User> findByEmail(String email);
     
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    // user_books üzerinde tek bir indeksli varlık sorgusu; koleksiyon yüklenmez
+    @Query("select case when count(b) > 0 then true else false end from User u join u.books b "
+            + "where u.username = :username and b.googleBooksId = :googleBooksId")
+    boolean existsBookInCollection(@Param("username") String username,
+                                   @Param("googleBooksId") String googleBooksId);
+    
+    // Verilen Google Books ID'lerinden kullanıcının koleksiyonunda olanlar
+    @Query("select b.googleBooksId from User u join u.books b "
+            + "where u.username = :username and b.googleBooksId in :googleBooksIds")
+    List<String> findGoogleBooksIdsInCollection(@Param("username") String username,
+                                                @Param("googleBooksIds") Collection<String> googleBooksIds);
+    
+    // Koleksiyonu id sırasıyla sayfa sayfa getir (keyset)
+    @Query(BookRepository.SUMMARY_SELECT
+            + " from User u join u.books b where u.username = :username and b.id > :afterId order by b.id asc")
+    List<BookSummary> findCollectionPage(@Param("username") String username, @Param("afterId") Long afterId,
+                                         Pageable pageable);
+    
+    // Koleksiyonlar yüklenmeden doğrudan join tablosuna yazılır; tekrar eklemek etkisizdir.
+    // Etkilenen tablo bildirilir; aksi halde Hibernate tüm ikinci seviye önbelleği boşaltır
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_books"))
+    @Query(value = "INSERT INTO user_books (user_id, book_id) VALUES (:userId, :bookId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertCollectionEntry(@Param("userId") Long userId, @Param("bookId") Long bookId);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_books"))
+    @Query(value = "DELETE FROM user_books WHERE user_id = :userId AND book_id = :bookId", nativeQuery = true)
+    int deleteCollectionEntry(@Param("userId") Long userId, @Param("bookId") Long bookId);
 }
\ No newline at end of file
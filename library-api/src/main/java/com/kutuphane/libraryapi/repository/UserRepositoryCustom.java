@@ -0,0 +1,14 @@
+package com.kutuphane.libraryapi.repository;
+
+import com.kutuphane.libraryapi.model.User;
+
+import java.util.Optional;
+
+// username doğal anahtarı üzerinden aramalar; Hibernate natural-id önbelleğini kullanır
+public interface UserRepositoryCustom {
+
+    Optional<User> findByUsername(String username);
+
+    // Kullanıcı varlığını yüklemeden sadece id'sini getir
+    Optional<Long> findIdByUsername(String username);
+}
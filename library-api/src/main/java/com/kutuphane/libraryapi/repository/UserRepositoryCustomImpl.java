@@ -0,0 +1,35 @@
+package com.kutuphane.libraryapi.repository;
+
+import com.kutuphane.libraryapi.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Kullanıcılar Hibernate natural-id API'si ile çözülür; username -> id ve varlık ikinci seviye önbellekten gelir
+@Transactional(readOnly = true)
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+
+    @Override
+    public Optional<Long> findIdByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        // getReference sadece id'yi çözer; varlık gerekmedikçe yüklenmez (proxy)
+        User user = entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).getReference(username);
+        return user == null ? Optional.empty() : Optional.of(user.getId());
+    }
+}
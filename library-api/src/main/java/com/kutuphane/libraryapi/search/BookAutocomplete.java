@@ -0,0 +1,549 @@
+package com.kutuphane.libraryapi.search;
+
+import com.kutuphane.libraryapi.event.BookChangedEvent;
+import com.kutuphane.libraryapi.event.CollectionChangedEvent;
+import com.kutuphane.libraryapi.model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Yerel katalog için önek tamamlama: radix trie, her düğüm alt ağacındaki en çok sahiplenilen TOP_K kitabı tutar
+@Component
+public class BookAutocomplete {
+
+    private static final Logger log = LoggerFactory.getLogger(BookAutocomplete.class);
+
+    public static final int TOP_K = 10;
+    public static final int MIN_PREFIX_LENGTH = 3;
+
+    // Anahtarlar bu uzunlukta kesilir; daha uzun sorgular da aynı uzunluğa indirilir
+    private static final int MAX_KEY_LENGTH = 40;
+    private static final int MAX_TITLE_SUFFIXES = 4;
+
+    private static final String BOOKS_SQL =
+            "SELECT id, title, author, publisher, isbn, google_books_id, publish_date, small_thumbnail, thumbnail FROM books";
+    private static final String OWNERS_SQL =
+            "SELECT book_id, COUNT(*) AS owners FROM user_books GROUP BY book_id";
+
+    private static final int[] NO_IDS = new int[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    // Önerilen kitabın gösterim verisi; sıralama anahtarı sahip sayısı
+    public record Hit(long bookId, String title, String author, String publisher, String isbn,
+                      String googleBooksId, LocalDate publishDate, String smallThumbnail,
+                      String thumbnail, int owners) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Kilitle korunur; yeniden kurulumda kilitsiz kurulan trie ile değiştirilir
+    private Trie trie = new Trie();
+    // Yeniden kurulum sürerken gelen değişiklikler; yeni trie'ye yayınlanmadan önce uygulanır
+    private List<Consumer<Trie>> pending;
+
+    private volatile boolean ready;
+
+    @Autowired
+    public BookAutocomplete(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(5000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Açılışta sahip sayıları ve kitaplar tek geçişte okunur; okumalar kurulum boyunca beklemez
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Trie fresh = new Trie();
+        try {
+            Map<Integer, Integer> owners = new HashMap<>();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.query(OWNERS_SQL, (RowCallbackHandler) rs ->
+                        owners.put(toInt(rs.getLong("book_id")), rs.getInt("owners")));
+                jdbcTemplate.query(BOOKS_SQL, (RowCallbackHandler) rs -> {
+                    int id = toInt(rs.getLong("id"));
+                    Date publishDate = rs.getDate("publish_date");
+                    fresh.put(id, new Hit(id, rs.getString("title"), rs.getString("author"),
+                            rs.getString("publisher"), rs.getString("isbn"), rs.getString("google_books_id"),
+                            publishDate != null ? publishDate.toLocalDate() : null,
+                            rs.getString("small_thumbnail"), rs.getString("thumbnail"), 0),
+                            owners.getOrDefault(id, 0));
+                });
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = false;
+            log.warn("Autocomplete trie could not be built, suggestions go upstream: {}", e.getMessage());
+            return;
+        }
+        int size;
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Trie> change : pending) {
+                change.accept(fresh);
+            }
+            pending = null;
+            trie = fresh;
+            size = fresh.entries.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Autocomplete trie built: {} books in {} ms", size, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        Book book = event.getBook();
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        int id = toInt(book.getId());
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            apply(t -> t.remove(id));
+        } else {
+            Hit hit = new Hit(id, book.getTitle(), book.getAuthor(), book.getPublisher(),
+                    book.getIsbn(), book.getGoogleBooksId(), book.getPublishDate(),
+                    book.getSmallThumbnail(), book.getThumbnail(), 0);
+            apply(t -> t.put(id, hit, t.owners(id)));
+        }
+    }
+
+    // Sahip sayısı değişen kitabın yalnızca kendi anahtar yolları yeniden sıralanır
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCollectionChanged(CollectionChangedEvent event) {
+        int id = toInt(event.getBookId());
+        int delta = event.isAdded() ? 1 : -1;
+        apply(t -> t.addOwners(id, delta));
+    }
+
+    // Başlığı, başlıktaki bir kelimesi ya da yazarı sorguyla başlayan en çok limit kitap, en çok sahiplenilen önce
+    public List<Hit> suggest(String query, int limit) {
+        String prefix = truncate(TextNormalizer.normalize(query));
+        if (prefix.length() < MIN_PREFIX_LENGTH || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.suggest(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Trie> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(trie);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Kitap kayıtları ve anahtar ağacı; yalnızca tek thread değiştirir
+    private static final class Trie {
+        private final Node root = new Node("");
+        private final Map<Integer, Entry> entries = new HashMap<>();
+
+        int owners(int id) {
+            Entry entry = entries.get(id);
+            return entry != null ? entry.owners : 0;
+        }
+
+        void put(int id, Hit hit, int owners) {
+            remove(id);
+            Entry entry = new Entry(hit);
+            entry.owners = owners;
+            add(id, entry);
+        }
+
+        void addOwners(int id, int delta) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                return;
+            }
+            entry.owners = Math.max(0, entry.owners + delta);
+            for (String key : entry.keys) {
+                List<Node> path = findPath(key);
+                if (path != null) {
+                    for (int i = path.size() - 1; i >= 0; i--) {
+                        recompute(path.get(i));
+                    }
+                }
+            }
+        }
+
+        List<Hit> suggest(String prefix, int limit) {
+            Node node = root;
+            int pos = 0;
+            while (pos < prefix.length()) {
+                int idx = childIndex(node, prefix.charAt(pos));
+                if (idx < 0) {
+                    return List.of();
+                }
+                Node child = node.children[idx];
+                int common = commonPrefix(child.label, prefix, pos);
+                if (pos + common == prefix.length()) {
+                    node = child;
+                    break;
+                }
+                if (common < child.label.length()) {
+                    return List.of();
+                }
+                node = child;
+                pos += common;
+            }
+            int count = Math.min(limit, node.top.length);
+            List<Hit> hits = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                hits.add(entries.get(node.top[i]).withOwners());
+            }
+            return hits;
+        }
+
+        private void add(int id, Entry entry) {
+            entry.keys = keysOf(entry.hit);
+            entries.put(id, entry);
+            for (String key : entry.keys) {
+                insert(key, id);
+            }
+        }
+
+        // Kitabın diğer anahtarları silinene kadar üst düğümler onu hâlâ sıralar; kayıt en son kaldırılır
+        void remove(int id) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                for (String key : entry.keys) {
+                    delete(key, id);
+                }
+                entries.remove(id);
+            }
+        }
+
+        private void insert(String key, int id) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int pos = 0;
+            while (true) {
+                if (pos == key.length()) {
+                    node.books = with(node.books, id);
+                    break;
+                }
+                int idx = childIndex(node, key.charAt(pos));
+                if (idx < 0) {
+                    Node leaf = new Node(key.substring(pos));
+                    leaf.books = new int[]{id};
+                    insertChild(node, -idx - 1, leaf);
+                    path.add(leaf);
+                    break;
+                }
+                Node child = node.children[idx];
+                int common = commonPrefix(child.label, key, pos);
+                if (common < child.label.length()) {
+                    // Kenarı ortak önekte böl
+                    Node middle = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.children = new Node[]{child};
+                    middle.top = child.top;
+                    node.children[idx] = middle;
+                    child = middle;
+                }
+                node = child;
+                pos += common;
+                path.add(node);
+            }
+            for (int i = path.size() - 1; i >= 0; i--) {
+                recompute(path.get(i));
+            }
+        }
+
+        private void delete(String key, int id) {
+            List<Node> path = findPath(key);
+            if (path == null) {
+                return;
+            }
+            Node last = path.get(path.size() - 1);
+            last.books = without(last.books, id);
+            for (int i = path.size() - 1; i > 0; i--) {
+                Node node = path.get(i);
+                Node parent = path.get(i - 1);
+                if (node.books.length == 0 && node.children.length == 0) {
+                    removeChild(parent, node);
+                } else if (node.books.length == 0 && node.children.length == 1) {
+                    // Tek çocuklu ara düğüm çocuğuyla birleştirilir
+                    Node only = node.children[0];
+                    only.label = node.label + only.label;
+                    parent.children[childIndex(parent, node.label.charAt(0))] = only;
+                } else {
+                    recompute(node);
+                }
+            }
+            recompute(root);
+        }
+
+        // Anahtarın tam yolunu döndürür; anahtar trie'de yoksa null
+        private List<Node> findPath(String key) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int pos = 0;
+            while (pos < key.length()) {
+                int idx = childIndex(node, key.charAt(pos));
+                if (idx < 0) {
+                    return null;
+                }
+                Node child = node.children[idx];
+                if (!key.startsWith(child.label, pos)) {
+                    return null;
+                }
+                node = child;
+                pos += child.label.length();
+                path.add(node);
+            }
+            return path;
+        }
+
+        // Düğümün kendi kitapları ve çocuklarının en iyi listelerinden en çok sahip olunan TOP_K kitap
+        private void recompute(Node node) {
+            if (node.children.length == 0 && node.books.length <= TOP_K) {
+                sort(node.books, node.books.length);
+                node.top = node.books;
+                return;
+            }
+            int[] best = new int[TOP_K];
+            int size = 0;
+            size = offerAll(best, size, node.books);
+            for (Node child : node.children) {
+                size = offerAll(best, size, child.top);
+            }
+            node.top = size == TOP_K ? best : Arrays.copyOf(best, size);
+        }
+
+        private int offerAll(int[] best, int size, int[] ids) {
+            for (int id : ids) {
+                size = offer(best, size, id);
+            }
+            return size;
+        }
+
+        // Sıralı, tekrar içermeyen en iyi listeye ekleme
+        private int offer(int[] best, int size, int id) {
+            for (int i = 0; i < size; i++) {
+                if (best[i] == id) {
+                    return size;
+                }
+            }
+            if (size == best.length && !better(id, best[size - 1])) {
+                return size;
+            }
+            int pos = Math.min(size, best.length - 1);
+            while (pos > 0 && better(id, best[pos - 1])) {
+                best[pos] = best[pos - 1];
+                pos--;
+            }
+            best[pos] = id;
+            return Math.min(size + 1, best.length);
+        }
+
+        private void sort(int[] ids, int length) {
+            for (int i = 1; i < length; i++) {
+                int id = ids[i];
+                int j = i;
+                while (j > 0 && better(id, ids[j - 1])) {
+                    ids[j] = ids[j - 1];
+                    j--;
+                }
+                ids[j] = id;
+            }
+        }
+
+        // More owners first, then the older (smaller) id
+        private boolean better(int a, int b) {
+            int ownersA = entries.get(a).owners;
+            int ownersB = entries.get(b).owners;
+            return ownersA != ownersB ? ownersA > ownersB : a < b;
+        }
+    }
+
+    private static String[] keysOf(Hit hit) {
+        Set<String> keys = new LinkedHashSet<>();
+        String title = TextNormalizer.normalize(hit.title());
+        addKey(keys, title);
+        int suffixes = 1;
+        for (int i = title.indexOf(' '); i >= 0 && suffixes < MAX_TITLE_SUFFIXES; i = title.indexOf(' ', i + 1)) {
+            addKey(keys, title.substring(i + 1));
+            suffixes++;
+        }
+        String author = TextNormalizer.normalize(hit.author());
+        addKey(keys, author);
+        int lastSpace = author.lastIndexOf(' ');
+        if (lastSpace >= 0) {
+            addKey(keys, author.substring(lastSpace + 1));
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private static void addKey(Set<String> keys, String key) {
+        if (key.length() >= MIN_PREFIX_LENGTH) {
+            keys.add(truncate(key));
+        }
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static int commonPrefix(String label, String key, int pos) {
+        int max = Math.min(label.length(), key.length() - pos);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(pos + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    // Çocuklar ilk karakterlerine göre sıralı tutulur
+    private static int childIndex(Node node, char c) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = node.children[mid].label.charAt(0);
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void insertChild(Node node, int at, Node child) {
+        Node[] children = new Node[node.children.length + 1];
+        System.arraycopy(node.children, 0, children, 0, at);
+        children[at] = child;
+        System.arraycopy(node.children, at, children, at + 1, node.children.length - at);
+        node.children = children;
+    }
+
+    private static void removeChild(Node node, Node child) {
+        int at = childIndex(node, child.label.charAt(0));
+        Node[] children = new Node[node.children.length - 1];
+        System.arraycopy(node.children, 0, children, 0, at);
+        System.arraycopy(node.children, at + 1, children, at, node.children.length - at - 1);
+        node.children = children.length == 0 ? NO_CHILDREN : children;
+    }
+
+    private static int[] with(int[] ids, int id) {
+        for (int existing : ids) {
+            if (existing == id) {
+                return ids;
+            }
+        }
+        int[] result = Arrays.copyOf(ids, ids.length + 1);
+        result[ids.length] = id;
+        return result;
+    }
+
+    private static int[] without(int[] ids, int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                if (ids.length == 1) {
+                    return NO_IDS;
+                }
+                int[] result = new int[ids.length - 1];
+                System.arraycopy(ids, 0, result, 0, i);
+                System.arraycopy(ids, i + 1, result, i, ids.length - i - 1);
+                return result;
+            }
+        }
+        return ids;
+    }
+
+    private static int toInt(long id) {
+        return Math.toIntExact(id);
+    }
+
+    private static final class Node {
+        String label;
+        Node[] children = NO_CHILDREN;
+        // Anahtarı tam bu düğümde biten kitaplar
+        int[] books = NO_IDS;
+        // Alt ağaçtaki en çok sahip olunan TOP_K kitap, sıralı
+        int[] top = NO_IDS;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Entry {
+        final Hit hit;
+        String[] keys;
+        int owners;
+
+        Entry(Hit hit) {
+            this.hit = hit;
+        }
+
+        Hit withOwners() {
+            return new Hit(hit.bookId(), hit.title(), hit.author(), hit.publisher(), hit.isbn(),
+                    hit.googleBooksId(), hit.publishDate(), hit.smallThumbnail(), hit.thumbnail(), owners);
+        }
+    }
+}
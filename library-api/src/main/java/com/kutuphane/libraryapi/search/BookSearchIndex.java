@@ -0,0 +1,319 @@
+package com.kutuphane.libraryapi.search;
+
+import com.kutuphane.libraryapi.dto.BookIndexRow;
+import com.kutuphane.libraryapi.event.BookChangedEvent;
+import com.kutuphane.libraryapi.model.Book;
+import com.kutuphane.libraryapi.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Başlık, yazar, yayınevi ve ISBN üzerinde bellekte trigram indeksi
+@Component
+public class BookSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    public enum Field {
+        TITLE, AUTHOR, PUBLISHER, ISBN
+    }
+
+    private static final Field[] FIELDS = Field.values();
+
+    private final BookRepository bookRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // ordinal -> document
+    private final List<Doc> docs = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<Long, Integer> ordinalByBookId = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    private final Map<Long, IntList>[] postings = new Map[FIELDS.length];
+
+    private volatile boolean ready;
+
+    @Autowired
+    public BookSearchIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+        for (int i = 0; i < postings.length; i++) {
+            postings[i] = new HashMap<>();
+        }
+    }
+
+    // Uygulama açılışında tüm kataloğu id sırasıyla parça parça yükle
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            long started = System.nanoTime();
+            int count = 0;
+            lock.writeLock().lock();
+            try {
+                clear();
+                List<BookIndexRow> batch = bookRepository.findIndexRowsAfterId(0L, PageRequest.of(0, LOAD_BATCH_SIZE));
+                while (!batch.isEmpty()) {
+                    for (BookIndexRow row : batch) {
+                        add(row.id(), row.title(), row.author(), row.publisher(), row.isbn());
+                    }
+                    count += batch.size();
+                    Long lastId = batch.get(batch.size() - 1).id();
+                    batch = bookRepository.findIndexRowsAfterId(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            log.info("Book search index built: {} books in {} ms", count, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            ready = false;
+            log.warn("Book search index could not be built, searches fall back to the database: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        Book book = event.getBook();
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(book.getId());
+            if (event.getType() != BookChangedEvent.Type.DELETED) {
+                add(book.getId(), book.getTitle(), book.getAuthor(), book.getPublisher(), book.getIsbn());
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // En iyi eşleşen kitapların id'leri, en alakalı önce
+    public List<Long> search(Field field, String query, int limit) {
+        String needle = field == Field.ISBN ? TextNormalizer.normalizeIsbn(query) : TextNormalizer.normalize(query);
+        if (needle.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Hit> hits = new ArrayList<>();
+            int f = field.ordinal();
+            if (needle.length() < 3) {
+                // Trigram üretilemeyecek kadar kısa sorgular için canlı belgeler taranır
+                for (int ord = live.nextSetBit(0); ord >= 0; ord = live.nextSetBit(ord + 1)) {
+                    collect(hits, ord, docs.get(ord).fields[f], needle);
+                }
+            } else {
+                int[] candidates = candidates(f, needle);
+                for (int ord : candidates) {
+                    if (live.get(ord)) {
+                        collect(hits, ord, docs.get(ord).fields[f], needle);
+                    }
+                }
+            }
+            hits.sort(Comparator.comparingInt((Hit h) -> h.score).reversed().thenComparingLong(h -> h.bookId));
+            List<Long> ids = new ArrayList<>(Math.min(limit, hits.size()));
+            for (int i = 0; i < hits.size() && i < limit; i++) {
+                ids.add(hits.get(i).bookId);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalByBookId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(List<Hit> hits, int ord, String text, String needle) {
+        int score = score(text, needle);
+        if (score > 0) {
+            hits.add(new Hit(docs.get(ord).bookId, score));
+        }
+    }
+
+    // Higher is better; shorter fields win among equal match kinds
+    private static int score(String text, String needle) {
+        int at = text.indexOf(needle);
+        if (at < 0) {
+            return 0;
+        }
+        int kind;
+        if (at == 0 && text.length() == needle.length()) {
+            kind = 4;
+        } else if (at == 0) {
+            kind = 3;
+        } else if (text.charAt(at - 1) == ' ' || text.contains(" " + needle)) {
+            kind = 2;
+        } else {
+            kind = 1;
+        }
+        return kind * 100_000 - Math.min(text.length(), 99_999);
+    }
+
+    private int[] candidates(int field, String needle) {
+        long[] grams = trigrams(needle);
+        IntList[] lists = new IntList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            IntList list = postings[field].get(grams[i]);
+            if (list == null) {
+                return new int[0];
+            }
+            lists[i] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(l -> l.size));
+        int[] result = Arrays.copyOf(lists[0].values, lists[0].size);
+        int length = result.length;
+        for (int i = 1; i < lists.length && length > 0; i++) {
+            length = intersect(result, length, lists[i]);
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    // In-place intersection of sorted arrays, returns the new length
+    private static int intersect(int[] target, int length, IntList other) {
+        int i = 0;
+        int j = 0;
+        int out = 0;
+        while (i < length && j < other.size) {
+            int a = target[i];
+            int b = other.values[j];
+            if (a == b) {
+                target[out++] = a;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return out;
+    }
+
+    private void add(Long bookId, String title, String author, String publisher, String isbn) {
+        String[] fields = new String[FIELDS.length];
+        fields[Field.TITLE.ordinal()] = TextNormalizer.normalize(title);
+        fields[Field.AUTHOR.ordinal()] = TextNormalizer.normalize(author);
+        fields[Field.PUBLISHER.ordinal()] = TextNormalizer.normalize(publisher);
+        fields[Field.ISBN.ordinal()] = TextNormalizer.normalizeIsbn(isbn);
+
+        int ord = docs.size();
+        docs.add(new Doc(bookId, fields));
+        live.set(ord);
+        ordinalByBookId.put(bookId, ord);
+        for (int f = 0; f < fields.length; f++) {
+            for (long gram : trigrams(fields[f])) {
+                postings[f].computeIfAbsent(gram, g -> new IntList()).addIfLast(ord);
+            }
+        }
+    }
+
+    private void remove(Long bookId) {
+        Integer ord = ordinalByBookId.remove(bookId);
+        if (ord != null) {
+            live.clear(ord);
+        }
+    }
+
+    private void compactIfNeeded() {
+        int liveCount = ordinalByBookId.size();
+        int dead = docs.size() - liveCount;
+        if (dead < 1024 || dead < liveCount) {
+            return;
+        }
+        List<Doc> survivors = new ArrayList<>(liveCount);
+        for (int ord = live.nextSetBit(0); ord >= 0; ord = live.nextSetBit(ord + 1)) {
+            survivors.add(docs.get(ord));
+        }
+        clear();
+        for (Doc doc : survivors) {
+            int ord = docs.size();
+            docs.add(doc);
+            live.set(ord);
+            ordinalByBookId.put(doc.bookId, ord);
+            for (int f = 0; f < doc.fields.length; f++) {
+                for (long gram : trigrams(doc.fields[f])) {
+                    postings[f].computeIfAbsent(gram, g -> new IntList()).addIfLast(ord);
+                }
+            }
+        }
+    }
+
+    private void clear() {
+        docs.clear();
+        live.clear();
+        ordinalByBookId.clear();
+        for (Map<Long, IntList> map : postings) {
+            map.clear();
+        }
+    }
+
+    // Three UTF-16 chars packed into one long key
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    private static final class Doc {
+        final long bookId;
+        final String[] fields;
+
+        Doc(long bookId, String[] fields) {
+            this.bookId = bookId;
+            this.fields = fields;
+        }
+    }
+
+    private record Hit(long bookId, int score) {
+    }
+
+    // Growable sorted int[]; ordinals are handed out in increasing order so appends keep it sorted
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void addIfLast(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
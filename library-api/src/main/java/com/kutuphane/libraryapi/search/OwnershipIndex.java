@@ -0,0 +1,281 @@
+package com.kutuphane.libraryapi.search;
+
+import com.kutuphane.libraryapi.event.BookChangedEvent;
+import com.kutuphane.libraryapi.event.CollectionChangedEvent;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// user_books tablosunun bellekteki görünümü (Roaring bitmap): kullanıcı başına kitaplar, kitap başına kullanıcılar
+@Component
+public class OwnershipIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OwnershipIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, RoaringBitmap> booksByUser = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> usersByBook = new HashMap<>();
+    private long ownershipCount;
+
+    private volatile boolean ready;
+
+    @Autowired
+    public OwnershipIndex(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(5000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Uygulama açılışında user_books tablosunu imleçle oku
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            long started = System.nanoTime();
+            lock.writeLock().lock();
+            try {
+                booksByUser.clear();
+                usersByBook.clear();
+                ownershipCount = 0;
+                readOnlyTransaction.executeWithoutResult(status ->
+                        jdbcTemplate.query("SELECT user_id, book_id FROM user_books", (RowCallbackHandler) rs ->
+                                add(rs.getLong("user_id"), rs.getLong("book_id"))));
+                for (RoaringBitmap bitmap : booksByUser.values()) {
+                    bitmap.runOptimize();
+                }
+                for (RoaringBitmap bitmap : usersByBook.values()) {
+                    bitmap.runOptimize();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            log.info("Ownership index built: {} rows in {} ms", ownershipCount, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            ready = false;
+            log.warn("Ownership index could not be built: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCollectionChanged(CollectionChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isAdded()) {
+                add(event.getUserId(), event.getBookId());
+            } else {
+                remove(event.getUserId(), event.getBookId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Silinen kitabın tüm sahiplik kayıtlarını düşür
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() != BookChangedEvent.Type.DELETED || event.getBook().getId() == null) {
+            return;
+        }
+        int book = toInt(event.getBook().getId());
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap owners = usersByBook.remove(book);
+            if (owners != null) {
+                owners.forEach((int user) -> {
+                    RoaringBitmap books = booksByUser.get(user);
+                    if (books != null && books.checkedRemove(book)) {
+                        ownershipCount--;
+                        if (books.isEmpty()) {
+                            booksByUser.remove(user);
+                        }
+                    }
+                });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean owns(long userId, long bookId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap books = booksByUser.get(toInt(userId));
+            return books != null && books.contains(toInt(bookId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int ownerCount(long bookId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap owners = usersByBook.get(toInt(bookId));
+            return owners == null ? 0 : owners.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int collectionSize(long userId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap books = booksByUser.get(toInt(userId));
+            return books == null ? 0 : books.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Verilen kitaplardan kullanıcının sahip olduklarını, girdi sırasıyla döndür
+    public List<Long> ownedAmong(long userId, Collection<Long> bookIds) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap books = booksByUser.get(toInt(userId));
+            List<Long> owned = new ArrayList<>();
+            if (books == null) {
+                return owned;
+            }
+            for (Long bookId : bookIds) {
+                if (bookId != null && books.contains(toInt(bookId))) {
+                    owned.add(bookId);
+                }
+            }
+            return owned;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // İki kullanıcının ortak kitap sayısı
+    public int commonBookCount(long userA, long userB) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap a = booksByUser.get(toInt(userA));
+            RoaringBitmap b = booksByUser.get(toInt(userB));
+            return a == null || b == null ? 0 : RoaringBitmap.andCardinality(a, b);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Verilen kitapların hepsine sahip olan kullanıcı sayısı
+    public int ownersOfAll(Collection<Long> bookIds) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            for (Long bookId : bookIds) {
+                RoaringBitmap owners = usersByBook.get(toInt(bookId));
+                if (owners == null) {
+                    return 0;
+                }
+                result = result == null ? owners.clone() : RoaringBitmap.and(result, owners);
+                if (result.isEmpty()) {
+                    return 0;
+                }
+            }
+            return result == null ? 0 : result.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long ownershipCount() {
+        lock.readLock().lock();
+        try {
+            return ownershipCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int userCount() {
+        lock.readLock().lock();
+        try {
+            return booksByUser.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (RoaringBitmap bitmap : booksByUser.values()) {
+                bytes += bitmap.getSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : usersByBook.values()) {
+                bytes += bitmap.getSizeInBytes();
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", ready);
+            stats.put("ownerships", ownershipCount);
+            stats.put("usersWithBooks", booksByUser.size());
+            stats.put("ownedBooks", usersByBook.size());
+            stats.put("bitmapBytes", bytes);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(long userId, long bookId) {
+        int user = toInt(userId);
+        int book = toInt(bookId);
+        if (booksByUser.computeIfAbsent(user, k -> new RoaringBitmap()).checkedAdd(book)) {
+            usersByBook.computeIfAbsent(book, k -> new RoaringBitmap()).add(user);
+            ownershipCount++;
+        }
+    }
+
+    private void remove(long userId, long bookId) {
+        int user = toInt(userId);
+        int book = toInt(bookId);
+        RoaringBitmap books = booksByUser.get(user);
+        if (books != null && books.checkedRemove(book)) {
+            ownershipCount--;
+            if (books.isEmpty()) {
+                booksByUser.remove(user);
+            }
+            RoaringBitmap owners = usersByBook.get(book);
+            if (owners != null) {
+                owners.remove(user);
+                if (owners.isEmpty()) {
+                    usersByBook.remove(book);
+                }
+            }
+        }
+    }
+
+    // Roaring bitmaps are 32-bit; ids are BIGSERIAL but far below 2^31
+    private static int toInt(long id) {
+        return Math.toIntExact(id);
+    }
+}
@@ -0,0 +1,61 @@
+package com.kutuphane.libraryapi.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+// Metni arama anahtarına indirger: Türkçe i varyantları ve aksanlar sadeleşir, harf/rakam dışı diziler tek boşluk olur
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case 'İ', 'I', 'ı' -> folded.append('i');
+                default -> folded.append(c);
+            }
+        }
+        String decomposed = Normalizer.normalize(folded, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && out.length() > 0) {
+                    out.append(' ');
+                }
+                pendingSpace = false;
+                out.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return out.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // ISBN'ler yalnızca rakam ve X olarak karşılaştırılır
+    public static String normalizeIsbn(String isbn) {
+        if (isbn == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(isbn.length());
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (Character.isDigit(c)) {
+                out.append(c);
+            } else if (c == 'x' || c == 'X') {
+                out.append('x');
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,143 @@
+package com.kutuphane.libraryapi.security;
+
+import com.kutuphane.libraryapi.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Stateless oturum modu için HMAC-SHA256 imzalı token üretir ve doğrular; çıkış yapılan token'lar süreleri dolana kadar reddedilir
+@Component
+public class SessionTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    // tokenId -> expiry (epoch seconds)
+    private final Map<String, Long> denyList = new ConcurrentHashMap<>();
+
+    public record TokenClaims(String tokenId, Long userId, String username, String role, long expiresAt) {
+    }
+
+    // HMAC-SHA256 için en az 32 baytlık anahtar
+    static final int MIN_SECRET_BYTES = 32;
+
+    public SessionTokenService(@Value("${security.session.mode:stateful}") String sessionMode,
+                               @Value("${security.token.secret:}") String secret,
+                               @Value("${security.token.ttl:30m}") Duration ttl) {
+        boolean stateless = "stateless".equalsIgnoreCase(sessionMode);
+        byte[] keyBytes = secret == null ? new byte[0] : secret.getBytes(StandardCharsets.UTF_8);
+        if (stateless && (secret == null || secret.isBlank() || keyBytes.length < MIN_SECRET_BYTES)) {
+            // Rastgele anahtarla token'lar başka instance'ta ve yeniden başlatmada geçersiz olurdu
+            throw new IllegalStateException("security.token.secret must be set to at least " + MIN_SECRET_BYTES
+                    + " bytes when security.session.mode=stateless (SESSION_TOKEN_SECRET)");
+        }
+        if (secret == null || secret.isBlank()) {
+            // Stateful modda token kullanılmaz
+            keyBytes = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(keyBytes);
+            log.debug("security.token.secret is not set; using a random key (session mode {})", sessionMode);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttl = ttl;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(User user) {
+        byte[] id = new byte[12];
+        random.nextBytes(id);
+        long expiresAt = Instant.now().plus(ttl).getEpochSecond();
+        String payload = ENCODER.encodeToString(id) + "|" + user.getId() + "|" + user.getUsername() + "|"
+                + user.getRole().name() + "|" + expiresAt;
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+    }
+
+    public Optional<TokenClaims> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return Optional.empty();
+        }
+        try {
+            String encodedPayload = token.substring(0, dot);
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(encodedPayload))) {
+                return Optional.empty();
+            }
+            // Usernames may contain '|', so the fixed fields are taken from both ends
+            String payload = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8);
+            int first = payload.indexOf('|');
+            int second = payload.indexOf('|', first + 1);
+            int last = payload.lastIndexOf('|');
+            int beforeLast = payload.lastIndexOf('|', last - 1);
+            if (first < 0 || second < 0 || beforeLast <= second) {
+                return Optional.empty();
+            }
+            TokenClaims claims = new TokenClaims(
+                    payload.substring(0, first),
+                    Long.valueOf(payload.substring(first + 1, second)),
+                    payload.substring(second + 1, beforeLast),
+                    payload.substring(beforeLast + 1, last),
+                    Long.parseLong(payload.substring(last + 1)));
+            if (claims.expiresAt() <= Instant.now().getEpochSecond() || denyList.containsKey(claims.tokenId())) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Çıkış yapılan token'ı süresi dolana kadar reddet
+    public void revoke(String token) {
+        verify(token).ifPresent(claims -> denyList.put(claims.tokenId(), claims.expiresAt()));
+        purgeExpired();
+    }
+
+    private void purgeExpired() {
+        long now = Instant.now().getEpochSecond();
+        Iterator<Map.Entry<String, Long>> it = denyList.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue() <= now) {
+                it.remove();
+            }
+        }
+    }
+
+    private byte[] sign(String data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC signing failed", e);
+        }
+    }
+}
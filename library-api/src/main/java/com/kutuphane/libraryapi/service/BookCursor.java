@@ -0,0 +1,97 @@
+package com.kutuphane.libraryapi.service;
+
+import com.kutuphane.libraryapi.exception.BadRequestException;
+import com.kutuphane.libraryapi.dto.BookSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Keyset sayfalama için opak imleç: sıralama ve önceki sayfanın son satırının konumunu taşır
+public final class BookCursor {
+
+    private static final String VERSION = "v1";
+
+    public enum Sort {
+        ID_ASC("id"),
+        ID_DESC("-id"),
+        UPDATED_AT_ASC("updatedAt"),
+        UPDATED_AT_DESC("-updatedAt");
+
+        private final String key;
+
+        Sort(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public static Sort fromKey(String key) {
+            if (key == null || key.isBlank()) {
+                return ID_ASC;
+            }
+            for (Sort sort : values()) {
+                if (sort.key.equals(key.trim())) {
+                    return sort;
+                }
+            }
+            throw new BadRequestException("Geçersiz sıralama anahtarı: " + key);
+        }
+    }
+
+    private final Sort sort;
+    private final Long id;
+    private final LocalDateTime updatedAt;
+
+    private BookCursor(Sort sort, Long id, LocalDateTime updatedAt) {
+        this.sort = sort;
+        this.id = id;
+        this.updatedAt = updatedAt;
+    }
+
+    public static BookCursor after(Sort sort, BookSummary last) {
+        return new BookCursor(sort, last.id(), last.updatedAt());
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + sort.getKey() + "|" + id + "|" + (updatedAt != null ? updatedAt : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookCursor decode(String token, Sort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new BadRequestException("Geçersiz sayfa imleci");
+            }
+            Sort sort = Sort.fromKey(parts[1]);
+            if (sort != expectedSort) {
+                throw new BadRequestException("Sayfa imleci farklı bir sıralama için oluşturulmuş");
+            }
+            Long id = Long.valueOf(parts[2]);
+            LocalDateTime updatedAt = parts[3].isEmpty() ? null : LocalDateTime.parse(parts[3]);
+            if (updatedAt == null && (sort == Sort.UPDATED_AT_ASC || sort == Sort.UPDATED_AT_DESC)) {
+                throw new BadRequestException("Geçersiz sayfa imleci");
+            }
+            return new BookCursor(sort, id, updatedAt);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Geçersiz sayfa imleci");
+        }
+    }
+}
@@ -1,23 +1,36 @@
 package com.kutuphane.libraryapi.service;
 
+import com.kutuphane.libraryapi.dto.BookLookupRequest;
+import com.kutuphane.libraryapi.dto.BookLookupResult;
+import com.kutuphane.libraryapi.dto.BookPage;
+import com.kutuphane.libraryapi.dto.BookSummary;
+import com.kutuphane.libraryapi.dto.BulkResult;
 import com.kutuphane.libraryapi.model.Book;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookService {
 
-    List<Book> getAllBooks();
+    BookPage getBooksPage(String cursor, Integer size, String sort);
 
     Book getBookById(Long id);
 
+    Optional<LocalDateTime> getBookLastModified(Long id);
+
     Book createBook(Book book);
 
+    BulkResult createBooks(List<Book> books);
+
     Book updateBook(Long id, Book bookDetails);
 
     void deleteBook(Long id);
 
-    List<Book> findBooksByAuthor(String author);
+    List<BookSummary> findBooksByAuthor(String author);
 
-    List<Book> findBooksByTitle(String title);
+    List<BookSummary> findBooksByTitle(String title);
 
     Book findBookByIsbn(String isbn);
+
+    BookLookupResult lookupBooks(BookLookupRequest request);
 }
@@ -1,26 +1,99 @@
 package com.kutuphane.libraryapi.service;
 
+import com.kutuphane.libraryapi.dto.BookLookupRequest;
+import com.kutuphane.libraryapi.dto.BookLookupResult;
+import com.kutuphane.libraryapi.dto.BookPage;
+import com.kutuphane.libraryapi.dto.BookSummary;
+import com.kutuphane.libraryapi.dto.BulkItemResult;
+import com.kutuphane.libraryapi.dto.BulkResult;
+import com.kutuphane.libraryapi.event.BookChangedEvent;
+import com.kutuphane.libraryapi.exception.BadRequestException;
 import com.kutuphane.libraryapi.model.Book;
+import com.kutuphane.libraryapi.repository.BookBatchRepository;
 import com.kutuphane.libraryapi.repository.BookRepository;
+import com.kutuphane.libraryapi.search.BookSearchIndex;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
+@Timed(value = "library.book.service", histogram = true)
 public class BookServiceImpl implements BookService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    static final int MAX_SEARCH_RESULTS = 100;
+    static final int MAX_BULK_SIZE = 5000;
+    static final int MAX_LOOKUP_SIZE = 5000;
+    // Tek IN sorgusundaki en fazla anahtar
+    static final int LOOKUP_CHUNK_SIZE = 500;
+
     private final BookRepository bookRepository;
+    private final BookBatchRepository bookBatchRepository;
+    private final BookSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public BookServiceImpl(BookRepository bookRepository) {
+    public BookServiceImpl(BookRepository bookRepository,
+                           BookBatchRepository bookBatchRepository,
+                           BookSearchIndex searchIndex,
+                           ApplicationEventPublisher eventPublisher) {
         this.bookRepository = bookRepository;
+        this.bookBatchRepository = bookBatchRepository;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
-    public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+    public BookPage getBooksPage(String cursor, Integer size, String sort) {
+        BookCursor.Sort sortKey = BookCursor.Sort.fromKey(sort);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // Bir fazla satır çekilir; gelirse sonraki sayfa vardır
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<BookSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = bookRepository.findSummaries(PageRequest.of(0, pageSize + 1, toSort(sortKey)));
+        } else {
+            BookCursor after = BookCursor.decode(cursor, sortKey);
+            rows = switch (sortKey) {
+                case ID_ASC -> bookRepository.findSummaryPageAfterIdAsc(after.getId(), limit);
+                case ID_DESC -> bookRepository.findSummaryPageAfterIdDesc(after.getId(), limit);
+                case UPDATED_AT_ASC -> bookRepository.findSummaryPageAfterUpdatedAtAsc(after.getUpdatedAt(), after.getId(), limit);
+                case UPDATED_AT_DESC -> bookRepository.findSummaryPageAfterUpdatedAtDesc(after.getUpdatedAt(), after.getId(), limit);
+            };
+        }
+
+        if (rows.size() <= pageSize) {
+            return new BookPage(rows, null);
+        }
+        List<BookSummary> content = rows.subList(0, pageSize);
+        return new BookPage(content, BookCursor.after(sortKey, content.get(pageSize - 1)).encode());
+    }
+
+    private Sort toSort(BookCursor.Sort sortKey) {
+        return switch (sortKey) {
+            case ID_ASC -> Sort.by(Sort.Direction.ASC, "id");
+            case ID_DESC -> Sort.by(Sort.Direction.DESC, "id");
+            case UPDATED_AT_ASC -> Sort.by(Sort.Direction.ASC, "updatedAt", "id");
+            case UPDATED_AT_DESC -> Sort.by(Sort.Direction.DESC, "updatedAt", "id");
+        };
     }
 
     @Override
@@ -29,9 +102,111 @@ public class BookServiceImpl implements BookService {
         return book.orElseThrow(() -> new com.kutuphane.libraryapi.exception.ResourceNotFoundException("Kitap bulunamadı: " + id));
     }
 
+    @Override
+    public Optional<LocalDateTime> getBookLastModified(Long id) {
+        return bookRepository.findUpdatedAtById(id);
+    }
+
     @Override
     public Book createBook(Book book) {
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.created(saved));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public BulkResult createBooks(List<Book> books) {
+        if (books == null || books.isEmpty()) {
+            throw new BadRequestException("Kitap listesi boş olamaz");
+        }
+        if (books.size() > MAX_BULK_SIZE) {
+            throw new BadRequestException("Tek istekte en fazla " + MAX_BULK_SIZE + " kitap eklenebilir");
+        }
+
+        // Veritabanında zaten bulunan ISBN / Google Books ID'leri tek seferde çek
+        Set<String> isbns = new HashSet<>();
+        Set<String> googleIds = new HashSet<>();
+        for (Book book : books) {
+            if (book == null) {
+                continue;
+            }
+            book.setIsbn(trimToNull(book.getIsbn()));
+            book.setGoogleBooksId(trimToNull(book.getGoogleBooksId()));
+            if (book.getIsbn() != null) {
+                isbns.add(book.getIsbn());
+            }
+            if (book.getGoogleBooksId() != null) {
+                googleIds.add(book.getGoogleBooksId());
+            }
+        }
+        Set<String> existingIsbns = bookBatchRepository.findExistingIsbns(isbns);
+        Set<String> existingGoogleIds = bookBatchRepository.findExistingGoogleBooksIds(googleIds);
+
+        BulkItemResult[] results = new BulkItemResult[books.size()];
+        List<Book> toInsert = new ArrayList<>();
+        List<Integer> insertIndexes = new ArrayList<>();
+        Set<String> seenIsbns = new HashSet<>();
+        Set<String> seenGoogleIds = new HashSet<>();
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            if (book == null || isBlank(book.getTitle()) || isBlank(book.getAuthor())) {
+                results[i] = new BulkItemResult(i, BulkItemResult.Status.INVALID, null, "Başlık ve yazar zorunludur");
+                continue;
+            }
+            String invalid = BookBatchRepository.invalidColumn(book);
+            if (invalid != null) {
+                results[i] = new BulkItemResult(i, BulkItemResult.Status.INVALID, null, invalid);
+                continue;
+            }
+            String isbn = book.getIsbn();
+            String googleId = book.getGoogleBooksId();
+            if ((isbn != null && existingIsbns.contains(isbn))
+                    || (googleId != null && existingGoogleIds.contains(googleId))) {
+                results[i] = new BulkItemResult(i, BulkItemResult.Status.ALREADY_EXISTS, null, null);
+                continue;
+            }
+            if ((isbn != null && seenIsbns.contains(isbn))
+                    || (googleId != null && seenGoogleIds.contains(googleId))) {
+                results[i] = new BulkItemResult(i, BulkItemResult.Status.DUPLICATE_IN_BATCH, null, null);
+                continue;
+            }
+            if (isbn != null) {
+                seenIsbns.add(isbn);
+            }
+            if (googleId != null) {
+                seenGoogleIds.add(googleId);
+            }
+            book.setId(null);
+            toInsert.add(book);
+            insertIndexes.add(i);
+        }
+
+        Set<Long> inserted = bookBatchRepository.insertAll(toInsert);
+        for (int j = 0; j < toInsert.size(); j++) {
+            Book book = toInsert.get(j);
+            int index = insertIndexes.get(j);
+            if (!inserted.contains(book.getId())) {
+                // Sorgudan sonra aynı Google Books ID başka bir istekle eklenmiş
+                results[index] = new BulkItemResult(index, BulkItemResult.Status.ALREADY_EXISTS, null, null);
+                continue;
+            }
+            results[index] = new BulkItemResult(index, BulkItemResult.Status.CREATED, book.getId(), null);
+            eventPublisher.publishEvent(BookChangedEvent.created(book));
+        }
+        return new BulkResult(List.of(results));
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
 
     @Override
@@ -44,27 +219,109 @@ public class BookServiceImpl implements BookService {
         book.setPublishDate(bookDetails.getPublishDate());
         book.setPageCount(bookDetails.getPageCount());
 
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.updated(saved));
+        return saved;
     }
 
     @Override
     public void deleteBook(Long id) {
         Book book = getBookById(id);
         bookRepository.delete(book);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(book));
     }
 
     @Override
-    public List<Book> findBooksByAuthor(String author) {
-        return bookRepository.findByAuthorContainingIgnoreCase(author);
+    public List<BookSummary> findBooksByAuthor(String author) {
+        if (!searchIndex.isReady()) {
+            return bookRepository.findSummariesByAuthorContainingIgnoreCase(author);
+        }
+        return loadInOrder(searchIndex.search(BookSearchIndex.Field.AUTHOR, author, MAX_SEARCH_RESULTS));
     }
 
     @Override
-    public List<Book> findBooksByTitle(String title) {
-        return bookRepository.findByTitleContainingIgnoreCase(title);
+    public List<BookSummary> findBooksByTitle(String title) {
+        if (!searchIndex.isReady()) {
+            return bookRepository.findSummariesByTitleContainingIgnoreCase(title);
+        }
+        return loadInOrder(searchIndex.search(BookSearchIndex.Field.TITLE, title, MAX_SEARCH_RESULTS));
+    }
+
+    // İndeksin verdiği alaka sırasını koruyarak özetleri tek sorguda yükle
+    private List<BookSummary> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookSummary> byId = new HashMap<>();
+        for (BookSummary book : bookRepository.findSummariesByIdIn(ids)) {
+            byId.put(book.id(), book);
+        }
+        List<BookSummary> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BookSummary book = byId.get(id);
+            if (book != null) {
+                ordered.add(book);
+            }
+        }
+        return ordered;
     }
 
     @Override
     public Book findBookByIsbn(String isbn) {
         return bookRepository.findByIsbn(isbn);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookLookupResult lookupBooks(BookLookupRequest request) {
+        if (request == null
+                || (request.getIds() == null && request.getIsbns() == null && request.getGoogleBooksIds() == null)) {
+            throw new BadRequestException("ids, isbns ya da googleBooksIds verilmelidir");
+        }
+        int total = sizeOf(request.getIds()) + sizeOf(request.getIsbns()) + sizeOf(request.getGoogleBooksIds());
+        if (total > MAX_LOOKUP_SIZE) {
+            throw new BadRequestException("Tek istekte en fazla " + MAX_LOOKUP_SIZE + " anahtar aranabilir");
+        }
+        return new BookLookupResult(
+                lookup(request.getIds(), id -> id, bookRepository::findSummariesByIdIn, BookSummary::id),
+                lookup(request.getIsbns(), BookServiceImpl::trimToNull, bookRepository::findSummariesByIsbnIn,
+                        BookSummary::isbn),
+                lookup(request.getGoogleBooksIds(), BookServiceImpl::trimToNull,
+                        bookRepository::findSummariesByGoogleBooksIdIn, BookSummary::googleBooksId));
+    }
+
+    // Tekil anahtarlar parça parça IN sorgusuyla çözülür, sonuç istek sırasıyla döner
+    private <K> List<BookLookupResult.Item<K>> lookup(List<K> keys,
+                                                      Function<K, K> normalize,
+                                                      Function<Collection<K>, List<BookSummary>> query,
+                                                      Function<BookSummary, K> keyOf) {
+        if (keys == null) {
+            return null;
+        }
+        List<K> distinct = new ArrayList<>();
+        Set<K> seen = new HashSet<>();
+        for (K key : keys) {
+            K normalized = key == null ? null : normalize.apply(key);
+            if (normalized != null && seen.add(normalized)) {
+                distinct.add(normalized);
+            }
+        }
+        Map<K, BookSummary> found = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<K> chunk = distinct.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinct.size()));
+            for (BookSummary book : query.apply(chunk)) {
+                found.putIfAbsent(keyOf.apply(book), book);
+            }
+        }
+        List<BookLookupResult.Item<K>> items = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            K normalized = key == null ? null : normalize.apply(key);
+            items.add(new BookLookupResult.Item<>(key, normalized == null ? null : found.get(normalized)));
+        }
+        return items;
+    }
+
+    private static int sizeOf(List<?> values) {
+        return values == null ? 0 : values.size();
+    }
 }
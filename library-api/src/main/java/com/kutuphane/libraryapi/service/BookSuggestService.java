@@ -0,0 +1,102 @@
+package com.kutuphane.libraryapi.service;
+
+import com.kutuphane.libraryapi.search.BookAutocomplete;
+import com.kutuphane.libraryapi.service.GoogleBooksService.BookSuggestion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Arama kutusu önerileri: önce yerel trie, boş kalan yerler için Google Books
+@Service
+public class BookSuggestService {
+
+    private static final int MAX_LIMIT = BookAutocomplete.TOP_K;
+
+    private final BookAutocomplete autocomplete;
+    private final GoogleBooksService googleBooksService;
+    private final Counter localCounter;
+    private final Counter upstreamCounter;
+
+    public BookSuggestService(BookAutocomplete autocomplete,
+                              GoogleBooksService googleBooksService,
+                              MeterRegistry meterRegistry) {
+        this.autocomplete = autocomplete;
+        this.googleBooksService = googleBooksService;
+        this.localCounter = Counter.builder("library.suggest")
+                .tag("source", "local")
+                .description("Suggestion requests answered from the local catalog only")
+                .register(meterRegistry);
+        this.upstreamCounter = Counter.builder("library.suggest")
+                .tag("source", "upstream")
+                .description("Suggestion requests that also needed Google Books")
+                .register(meterRegistry);
+    }
+
+    public Mono<List<BookSuggestion>> suggest(String query, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (!autocomplete.isReady()) {
+            // Trie açılışta kurulurken istekler beklemeden Google Books'a gider
+            upstreamCounter.increment();
+            return googleBooksService.searchBooksAsync(query, size);
+        }
+        List<BookSuggestion> local = new ArrayList<>(size);
+        for (BookAutocomplete.Hit hit : autocomplete.suggest(query, size)) {
+            local.add(toSuggestion(hit));
+        }
+        if (local.size() >= size) {
+            localCounter.increment();
+            return Mono.just(local);
+        }
+
+        upstreamCounter.increment();
+        return googleBooksService.searchBooksAsync(query, size)
+                .map(remote -> merge(local, remote, size));
+    }
+
+    // Yerel sonuçlar önce; aynı Google Books kaydı ikinci kez eklenmez
+    private static List<BookSuggestion> merge(List<BookSuggestion> local, List<BookSuggestion> remote, int size) {
+        List<BookSuggestion> merged = new ArrayList<>(local);
+        Set<String> seen = new HashSet<>();
+        for (BookSuggestion suggestion : local) {
+            if (suggestion.getGoogleId() != null) {
+                seen.add(suggestion.getGoogleId());
+            }
+        }
+        for (BookSuggestion suggestion : remote) {
+            if (merged.size() >= size) {
+                break;
+            }
+            if (suggestion.getGoogleId() == null || seen.add(suggestion.getGoogleId())) {
+                merged.add(suggestion);
+            }
+        }
+        return merged;
+    }
+
+    private static BookSuggestion toSuggestion(BookAutocomplete.Hit hit) {
+        BookSuggestion suggestion = new BookSuggestion();
+        suggestion.setBookId(hit.bookId());
+        suggestion.setGoogleId(hit.googleBooksId());
+        suggestion.setTitle(hit.title());
+        suggestion.setAuthors(hit.author());
+        suggestion.setPublisher(hit.publisher());
+        if (hit.publishDate() != null) {
+            suggestion.setPublishedDate(hit.publishDate().toString());
+        }
+        String isbn = hit.isbn();
+        if (isbn != null && isbn.length() == 13) {
+            suggestion.setIsbn13(isbn);
+        } else {
+            suggestion.setIsbn10(isbn);
+        }
+        suggestion.setSmallThumbnail(hit.smallThumbnail());
+        suggestion.setThumbnail(hit.thumbnail());
+        return suggestion;
+    }
+}
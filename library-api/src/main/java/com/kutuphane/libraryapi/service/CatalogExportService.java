@@ -0,0 +1,139 @@
+package com.kutuphane.libraryapi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+// Kataloğu salt okunur transaction içinde ileri yönlü JDBC imleciyle doğrudan akışa yazar
+@Service
+public class CatalogExportService {
+
+    public enum Format {
+        NDJSON, JSON
+    }
+
+    private static final String BOOKS_SQL =
+            "SELECT id, title, author, isbn, publish_date, page_count, google_books_id, publisher, description, "
+            + "language, small_thumbnail, thumbnail, medium_image, large_image, created_at, updated_at "
+            + "FROM books ORDER BY id";
+
+    private static final String USER_BOOKS_SQL =
+            "SELECT user_id, book_id FROM user_books ORDER BY user_id, book_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public CatalogExportService(DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                @Value("${library.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public long exportBooks(OutputStream out, Format format) throws IOException {
+        return export(out, format, BOOKS_SQL, this::writeBook);
+    }
+
+    public long exportUserBooks(OutputStream out, Format format) throws IOException {
+        return export(out, format, USER_BOOKS_SQL, (generator, rs) -> {
+            generator.writeNumberField("userId", rs.getLong("user_id"));
+            generator.writeNumberField("bookId", rs.getLong("book_id"));
+        });
+    }
+
+    private long export(OutputStream out, Format format, String sql, RowWriter rowWriter) throws IOException {
+        // The generator must not close the servlet stream; the caller owns it
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long[] count = {0};
+
+        if (format == Format.JSON) {
+            generator.writeStartArray();
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                        try {
+                            generator.writeStartObject();
+                            rowWriter.write(generator, rs);
+                            generator.writeEndObject();
+                            if (format == Format.NDJSON) {
+                                generator.writeRaw('\n');
+                            }
+                            count[0]++;
+                        } catch (IOException e) {
+                            // Client went away or is not reading: abort the cursor
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (format == Format.JSON) {
+            generator.writeEndArray();
+        }
+        generator.flush();
+        return count[0];
+    }
+
+    private void writeBook(JsonGenerator generator, ResultSet rs) throws IOException, SQLException {
+        generator.writeNumberField("id", rs.getLong("id"));
+        writeString(generator, "title", rs.getString("title"));
+        writeString(generator, "author", rs.getString("author"));
+        writeString(generator, "isbn", rs.getString("isbn"));
+        Date publishDate = rs.getDate("publish_date");
+        writeString(generator, "publishDate", publishDate != null ? publishDate.toLocalDate().toString() : null);
+        int pageCount = rs.getInt("page_count");
+        if (!rs.wasNull()) {
+            generator.writeNumberField("pageCount", pageCount);
+        }
+        writeString(generator, "googleBooksId", rs.getString("google_books_id"));
+        writeString(generator, "publisher", rs.getString("publisher"));
+        writeString(generator, "description", rs.getString("description"));
+        writeString(generator, "language", rs.getString("language"));
+        writeString(generator, "smallThumbnail", rs.getString("small_thumbnail"));
+        writeString(generator, "thumbnail", rs.getString("thumbnail"));
+        writeString(generator, "mediumImage", rs.getString("medium_image"));
+        writeString(generator, "largeImage", rs.getString("large_image"));
+        writeTimestamp(generator, "createdAt", rs.getTimestamp("created_at"));
+        writeTimestamp(generator, "updatedAt", rs.getTimestamp("updated_at"));
+    }
+
+    private void writeString(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private void writeTimestamp(JsonGenerator generator, String name, Timestamp value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value.toLocalDateTime().toString());
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(JsonGenerator generator, ResultSet rs) throws IOException, SQLException;
+    }
+}
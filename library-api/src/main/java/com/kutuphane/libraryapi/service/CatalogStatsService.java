@@ -0,0 +1,293 @@
+package com.kutuphane.libraryapi.service;
+
+import com.kutuphane.libraryapi.event.BookChangedEvent;
+import com.kutuphane.libraryapi.model.Book;
+import com.kutuphane.libraryapi.search.OwnershipIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Katalog istatistikleri bellekte tutulur ve BookChangedEvent ile güncellenir;
+// zamanlanmış uzlaştırma servis dışı yazmalardan doğan sapmayı düzeltir
+@Service
+public class CatalogStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogStatsService.class);
+
+    private static final String BOOKS_SQL = "SELECT id, author, page_count, publish_date FROM books";
+    private static final String COLLECTIONS_SQL =
+            "SELECT COUNT(*) AS entries, COUNT(DISTINCT user_id) AS users FROM user_books";
+
+    // prolific_authors ile aynı eşik; yanıtta en çok bu kadar yazar döner
+    private static final int PROLIFIC_MIN_BOOKS = 2;
+    private static final int PROLIFIC_LIMIT = 20;
+    private static final Comparator<AuthorCounter> PROLIFIC_ORDER =
+            Comparator.comparingLong((AuthorCounter a) -> a.books).reversed().thenComparing(a -> a.name);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final OwnershipIndex ownershipIndex;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Aggregates aggregates = new Aggregates();
+    // Yeniden oluşturma sürerken olaylarla değişen kitaplar; sonuç değiştirilmeden önce yeniden uygulanır
+    private Set<Long> changedDuringRebuild;
+
+    // Yazma olaylarında artar; önbellekteki görüntü yalnızca aynı sürüm için geçerlidir
+    private volatile long version;
+    private volatile Snapshot snapshot;
+    private volatile boolean ready;
+    private volatile Instant lastReconciledAt;
+
+    @Autowired
+    public CatalogStatsService(DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               OwnershipIndex ownershipIndex) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(5000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.ownershipIndex = ownershipIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    // Veritabanından sıfırdan hesapla; yazma olayları bu sırada beklemez
+    @Scheduled(initialDelayString = "${library.stats.reconcile-interval:10m}",
+               fixedDelayString = "${library.stats.reconcile-interval:10m}")
+    public void reconcile() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Aggregates fresh = new Aggregates();
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.query(BOOKS_SQL, (RowCallbackHandler) rs -> {
+                        int pages = rs.getInt("page_count");
+                        Integer pageCount = rs.wasNull() ? null : pages;
+                        Date publishDate = rs.getDate("publish_date");
+                        fresh.replace(rs.getLong("id"), new Contribution(
+                                rs.getString("author"),
+                                pageCount,
+                                publishDate != null ? publishDate.toLocalDate() : null));
+                    }));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Catalog statistics could not be reconciled: {}", e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Long bookId : changedDuringRebuild) {
+                fresh.replace(bookId, aggregates.contributions.get(bookId));
+            }
+            changedDuringRebuild = null;
+            if (ready && (fresh.totalBooks != aggregates.totalBooks || fresh.totalPages != aggregates.totalPages)) {
+                log.info("Catalog statistics drift corrected: books {} -> {}, pages {} -> {}",
+                        aggregates.totalBooks, fresh.totalBooks, aggregates.totalPages, fresh.totalPages);
+            }
+            aggregates = fresh;
+            version++;
+            ready = true;
+            lastReconciledAt = Instant.now();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Catalog statistics reconciled: {} books in {} ms",
+                fresh.totalBooks, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        Book book = event.getBook();
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        Contribution contribution = event.getType() == BookChangedEvent.Type.DELETED
+                ? null
+                : new Contribution(book.getAuthor(), book.getPageCount(), book.getPublishDate());
+        lock.writeLock().lock();
+        try {
+            aggregates.replace(book.getId(), contribution);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(book.getId());
+            }
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Güncel istatistikler; katalog kısmı her değişiklikte bir kez hazırlanır
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        if (current == null || current.version() != version) {
+            lock.readLock().lock();
+            try {
+                current = new Snapshot(version, aggregates.toMap());
+            } finally {
+                lock.readLock().unlock();
+            }
+            snapshot = current;
+        }
+        Map<String, Object> stats = new LinkedHashMap<>(current.catalog());
+        Map<String, Object> collections = new LinkedHashMap<>();
+        if (ownershipIndex.isReady()) {
+            collections.put("entries", ownershipIndex.ownershipCount());
+            collections.put("usersWithBooks", ownershipIndex.userCount());
+        } else {
+            // Sahiplik indeksi kurulana kadar sayılar veritabanından okunur
+            jdbcTemplate.query(COLLECTIONS_SQL, (RowCallbackHandler) rs -> {
+                collections.put("entries", rs.getLong("entries"));
+                collections.put("usersWithBooks", rs.getInt("users"));
+            });
+        }
+        stats.put("collections", collections);
+        stats.put("ready", ready);
+        stats.put("lastReconciledAt", lastReconciledAt);
+        return stats;
+    }
+
+    private record Snapshot(long version, Map<String, Object> catalog) {
+    }
+
+    private record Contribution(String author, Integer pageCount, LocalDate publishDate) {
+    }
+
+    // Sayaçlar; yalnızca kilit altında değiştirilir
+    private static final class Aggregates {
+        final Map<Long, Contribution> contributions = new HashMap<>();
+        final Map<String, AuthorCounter> authors = new HashMap<>();
+        // En az PROLIFIC_MIN_BOOKS kitabı olan yazarlar, sıralı; okumada yalnızca baştaki PROLIFIC_LIMIT kopyalanır
+        final TreeSet<AuthorCounter> prolific = new TreeSet<>(PROLIFIC_ORDER);
+        final TreeMap<Integer, Integer> decades = new TreeMap<>();
+        final TreeMap<LocalDate, Integer> publishDates = new TreeMap<>();
+        long totalBooks;
+        long totalPages;
+        long booksWithPages;
+
+        void replace(long bookId, Contribution contribution) {
+            Contribution old = contribution != null
+                    ? contributions.put(bookId, contribution)
+                    : contributions.remove(bookId);
+            if (old != null) {
+                apply(old, -1);
+            }
+            if (contribution != null) {
+                apply(contribution, 1);
+            }
+        }
+
+        private void apply(Contribution c, int sign) {
+            totalBooks += sign;
+            if (c.pageCount() != null) {
+                totalPages += (long) sign * c.pageCount();
+                booksWithPages += sign;
+            }
+            if (c.author() != null) {
+                AuthorCounter counter = authors.computeIfAbsent(c.author(), AuthorCounter::new);
+                // Sıralama anahtarı değişmeden önce çıkarılır
+                prolific.remove(counter);
+                counter.books += sign;
+                if (c.pageCount() != null) {
+                    counter.pages += (long) sign * c.pageCount();
+                    counter.booksWithPages += sign;
+                }
+                if (counter.books == 0) {
+                    authors.remove(c.author());
+                } else if (counter.books >= PROLIFIC_MIN_BOOKS) {
+                    prolific.add(counter);
+                }
+            }
+            if (c.publishDate() != null) {
+                adjust(decades, Math.floorDiv(c.publishDate().getYear(), 10) * 10, sign);
+                adjust(publishDates, c.publishDate(), sign);
+            }
+        }
+
+        private static <K> void adjust(TreeMap<K, Integer> counts, K key, int sign) {
+            counts.merge(key, sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("totalBooks", totalBooks);
+            stats.put("totalAuthors", authors.size());
+            stats.put("totalPages", totalPages);
+            stats.put("averagePages", booksWithPages == 0 ? null : (double) totalPages / booksWithPages);
+            stats.put("earliestPublication", publishDates.isEmpty() ? null : publishDates.firstKey());
+            stats.put("latestPublication", publishDates.isEmpty() ? null : publishDates.lastKey());
+
+            Map<Integer, Integer> byDecade = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Integer> entry : decades.descendingMap().entrySet()) {
+                byDecade.put(entry.getKey(), entry.getValue());
+            }
+            stats.put("booksByDecade", byDecade);
+
+            List<Map<String, Object>> topAuthors = new ArrayList<>(Math.min(prolific.size(), PROLIFIC_LIMIT));
+            for (AuthorCounter counter : prolific) {
+                if (topAuthors.size() == PROLIFIC_LIMIT) {
+                    break;
+                }
+                Map<String, Object> author = new LinkedHashMap<>();
+                author.put("author", counter.name);
+                author.put("bookCount", counter.books);
+                author.put("averagePages", counter.booksWithPages == 0 ? null : (double) counter.pages / counter.booksWithPages);
+                topAuthors.add(author);
+            }
+            stats.put("prolificAuthors", topAuthors);
+            return stats;
+        }
+    }
+
+    private static final class AuthorCounter {
+        final String name;
+        long books;
+        long pages;
+        long booksWithPages;
+
+        AuthorCounter(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.kutuphane.libraryapi.service;
+
+import com.kutuphane.libraryapi.event.BookChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bellekteki arama yapılarından sunulan uçlar için katalog sürümü; rastgele instance etiketi eski ETag'leri geçersiz kılar
+@Component
+public class CatalogVersion {
+
+    private final String instanceTag = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong version = new AtomicLong();
+    private volatile Instant lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        version.incrementAndGet();
+        lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public String getEtag() {
+        return "W/\"catalog-" + instanceTag + "-" + version.get() + "\"";
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,128 @@
+package com.kutuphane.libraryapi.service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+// Kapak görselleri için çözme, küçültme ve yer tutucu üretimi (ImageIO, headless)
+final class CoverImages {
+
+    // Daha büyük kaynaklar çözülmeden reddedilir (sıkıştırma bombası)
+    static final int MAX_SOURCE_PIXELS = 4000 * 4000;
+
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final Color BACKGROUND = new Color(0xE9, 0xEC, 0xEF);
+    private static final Color FOREGROUND = new Color(0xAD, 0xB5, 0xBD);
+
+    private CoverImages() {
+    }
+
+    static BufferedImage decode(byte[] bytes) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image too large: " + reader.getWidth(0) + "x" + reader.getHeight(0));
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // En-boy oranını koruyarak sığdırır, büyütmez; büyük küçültmeler yarılama adımlarıyla yapılır
+    static BufferedImage fit(BufferedImage source, int width, int height) {
+        double scale = Math.min(1.0, Math.min((double) width / source.getWidth(), (double) height / source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(targetWidth, w / 2);
+            h = Math.max(targetHeight, h / 2);
+            if (current != source && w == current.getWidth() && h == current.getHeight()) {
+                break;
+            }
+            current = draw(current, w, h);
+        } while (w != targetWidth || h != targetHeight);
+        return current;
+    }
+
+    static byte[] toJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    // Gri zemin üzerinde basit bir kitap çizimi
+    static byte[] placeholderPng(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(BACKGROUND);
+            g.fillRect(0, 0, width, height);
+            int bookWidth = Math.max(4, width * 2 / 5);
+            int bookHeight = Math.max(6, Math.min(height * 2 / 5, bookWidth * 3 / 2));
+            int x = (width - bookWidth) / 2;
+            int y = (height - bookHeight) / 2;
+            g.setColor(FOREGROUND);
+            g.setStroke(new BasicStroke(Math.max(1f, width / 60f)));
+            g.drawRoundRect(x, y, bookWidth, bookHeight, bookWidth / 8, bookWidth / 8);
+            int spine = x + bookWidth / 6;
+            g.drawLine(spine, y, spine, y + bookHeight);
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return bytes.toByteArray();
+    }
+
+    // JPEG alfa kanalı taşımaz; saydam alanlar beyaza boyanır
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+}
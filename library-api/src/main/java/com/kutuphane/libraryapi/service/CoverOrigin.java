@@ -0,0 +1,11 @@
+package com.kutuphane.libraryapi.service;
+
+import java.io.IOException;
+import java.net.URI;
+
+// Kapak görsellerinin indirildiği kaynak; varsayılan HttpCoverOrigin, testler kendi bean'ini verebilir
+public interface CoverOrigin {
+
+    // Görselin ham baytları; kaynakta yoksa null
+    byte[] fetch(URI source) throws IOException;
+}
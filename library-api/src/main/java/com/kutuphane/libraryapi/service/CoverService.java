@@ -0,0 +1,433 @@
+package com.kutuphane.libraryapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kutuphane.libraryapi.dto.BookCoverUrls;
+import com.kutuphane.libraryapi.exception.BadRequestException;
+import com.kutuphane.libraryapi.exception.ResourceNotFoundException;
+import com.kutuphane.libraryapi.repository.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+// Kapak vekili: görseller bir kez indirilir, boyutlandırılır ve içerik adresli disk önbelleğinde tutulur
+// (blobs/ab/<sha>.jpg görsel, refs/<sha(boyut, adres)> blob adı)
+@Service
+public class CoverService {
+
+    private static final Logger log = LoggerFactory.getLogger(CoverService.class);
+
+    public static final int MIN_PLACEHOLDER_SIZE = 8;
+    public static final int MAX_PLACEHOLDER_SIZE = 1024;
+
+    // Sınır aşılınca en eski dosyalar bu orana inene kadar silinir
+    private static final double SWEEP_TARGET_RATIO = 0.9;
+    // Bellekteki referans bu süreden sonra diskten okunur ve dosyaların zamanı tazelenir (LRU)
+    private static final Duration REF_CACHE_TTL = Duration.ofHours(1);
+    private static final String TEMP_PREFIX = ".tmp-";
+
+    // Arayüzdeki kutular: öneri listesi 50x75, sonuç kartı 120x180; LARGE yüksek yoğunluklu ekranlar için
+    public enum Size {
+        SMALL(50, 75),
+        MEDIUM(120, 180),
+        LARGE(240, 360);
+
+        private final int width;
+        private final int height;
+
+        Size(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public static Size fromKey(String key) {
+            if (key == null || key.isBlank()) {
+                return MEDIUM;
+            }
+            try {
+                return valueOf(key.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Geçersiz kapak boyutu: " + key + " (small, medium, large)");
+            }
+        }
+    }
+
+    // Önbellekteki görsel dosyası; hash güçlü ETag olarak kullanılır, placeholder kapak alınamadığında işaretlenir
+    public record Cover(Path file, long length, String contentType, String hash, boolean placeholder) {
+    }
+
+    private final CoverOrigin origin;
+    private final BookRepository bookRepository;
+    private final Path blobDir;
+    private final Path refDir;
+    private final Set<String> allowedHosts;
+    private final long maxCacheBytes;
+    private final long maxCacheEntries;
+
+    // Son taramadaki disk kullanımı ve sonrasında eklenenler
+    private volatile long sweptBytes;
+    private volatile long sweptEntries;
+    private final AtomicLong addedBytes = new AtomicLong();
+    private final AtomicLong addedEntries = new AtomicLong();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    // Çözülmüş referanslar; disk yine doğruluk kaynağıdır
+    private final Cache<String, Cover> refCache;
+    // Başarısız kaynaklar bir süre yeniden denenmez
+    private final Cache<String, Boolean> failedSources;
+    // Aynı kapak için eşzamanlı istekler tek indirmeyi bekler
+    private final ConcurrentHashMap<String, CompletableFuture<Cover>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter fetches;
+    private final Counter failures;
+    private final Counter placeholders;
+    private final Counter evictions;
+
+    public CoverService(CoverOrigin origin,
+                        BookRepository bookRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${library.covers.cache-dir:${java.io.tmpdir}/library-covers}") Path cacheDir,
+                        @Value("${library.covers.allowed-hosts:books.google.com,books.googleusercontent.com}") List<String> allowedHosts,
+                        @Value("${library.covers.failure-ttl:10m}") Duration failureTtl,
+                        @Value("${library.covers.max-cache-size:512MB}") DataSize maxCacheSize,
+                        @Value("${library.covers.max-cache-entries:100000}") long maxCacheEntries) throws IOException {
+        this.origin = origin;
+        this.bookRepository = bookRepository;
+        this.blobDir = Files.createDirectories(cacheDir.resolve("blobs")).toAbsolutePath();
+        this.refDir = Files.createDirectories(cacheDir.resolve("refs")).toAbsolutePath();
+        this.allowedHosts = Set.copyOf(allowedHosts.stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList());
+        this.maxCacheBytes = maxCacheSize.toBytes();
+        this.maxCacheEntries = maxCacheEntries;
+        this.refCache = Caffeine.newBuilder().maximumSize(20_000).expireAfterWrite(REF_CACHE_TTL).build();
+        this.failedSources = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(failureTtl).build();
+        this.hits = counter(meterRegistry, "hit");
+        this.fetches = counter(meterRegistry, "fetched");
+        this.failures = counter(meterRegistry, "failed");
+        this.placeholders = counter(meterRegistry, "placeholder");
+        this.evictions = Counter.builder("library.covers.evictions")
+                .description("Cover cache files removed by the size sweep")
+                .register(meterRegistry);
+    }
+
+    // İzin verilen bir adresteki kapağı istenen boyutta döndürür; indirilemezse yer tutucu
+    public Cover forUrl(String url, Size size) {
+        Cover cover = load(checkSource(url), size);
+        return cover != null ? cover : placeholder(size.getWidth(), size.getHeight());
+    }
+
+    // Kitabın kayıtlı adresleri boyuta uygunluk sırasıyla denenir; hiçbiri alınamazsa yer tutucu
+    public Cover forBook(Long bookId, Size size) {
+        BookCoverUrls urls = bookRepository.findCoverUrlsById(bookId)
+                .orElseThrow(() -> new ResourceNotFoundException("Kitap bulunamadı: " + bookId));
+        for (String candidate : candidates(urls, size)) {
+            if (candidate == null || candidate.isBlank()) {
+                continue;
+            }
+            URI source;
+            try {
+                source = checkSource(candidate);
+            } catch (BadRequestException e) {
+                log.debug("Stored cover URL of book {} is not allowed: {}", bookId, e.getMessage());
+                continue;
+            }
+            Cover cover = load(source, size);
+            if (cover != null) {
+                return cover;
+            }
+        }
+        return placeholder(size.getWidth(), size.getHeight());
+    }
+
+    public Cover placeholder(int width, int height) {
+        if (width < MIN_PLACEHOLDER_SIZE || height < MIN_PLACEHOLDER_SIZE
+                || width > MAX_PLACEHOLDER_SIZE || height > MAX_PLACEHOLDER_SIZE) {
+            throw new BadRequestException("Yer tutucu boyutu " + MIN_PLACEHOLDER_SIZE + " ile "
+                    + MAX_PLACEHOLDER_SIZE + " piksel arasında olmalıdır");
+        }
+        placeholders.increment();
+        Cover cover = cached("placeholder:" + width + "x" + height, () -> CoverImages.placeholderPng(width, height), "png");
+        return new Cover(cover.file(), cover.length(), cover.contentType(), cover.hash(), true);
+    }
+
+    // Kapak alınamazsa null; yer tutucuya çağıran karar verir
+    private Cover load(URI source, Size size) {
+        if (failedSources.getIfPresent(source.toString()) != null) {
+            return null;
+        }
+        try {
+            return cached("cover:" + size + ":" + source, () -> {
+                byte[] original = origin.fetch(source);
+                if (original == null) {
+                    throw new IOException("Cover not found at origin: " + source);
+                }
+                fetches.increment();
+                return CoverImages.toJpeg(CoverImages.fit(CoverImages.decode(original), size.getWidth(), size.getHeight()));
+            }, "jpg");
+        } catch (UncheckedIOException e) {
+            failures.increment();
+            failedSources.put(source.toString(), Boolean.TRUE);
+            log.info("Cover could not be fetched: {}", e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private Cover cached(String key, ImageProducer producer, String extension) {
+        Cover cover = refCache.getIfPresent(key);
+        if (cover != null && Files.exists(cover.file())) {
+            hits.increment();
+            return cover;
+        }
+        CompletableFuture<Cover> mine = new CompletableFuture<>();
+        CompletableFuture<Cover> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+        try {
+            cover = readRef(key);
+            if (cover != null) {
+                hits.increment();
+            } else {
+                cover = store(key, producer.produce(), extension);
+            }
+            refCache.put(key, cover);
+            mine.complete(cover);
+            return cover;
+        } catch (IOException e) {
+            UncheckedIOException failure = new UncheckedIOException(e);
+            mine.completeExceptionally(failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Cover readRef(String key) throws IOException {
+        Path ref = refDir.resolve(sha256(key.getBytes(StandardCharsets.UTF_8)));
+        try {
+            String blobName = Files.readString(ref, StandardCharsets.US_ASCII).trim();
+            Path blob = blobPath(blobName);
+            // Kullanılan dosyalar taramada en son silinir
+            FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+            Files.setLastModifiedTime(blob, now);
+            Files.setLastModifiedTime(ref, now);
+            return toCover(blob, blobName);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private Cover store(String key, byte[] bytes, String extension) throws IOException {
+        String hash = sha256(bytes);
+        String blobName = hash + "." + extension;
+        Path blob = blobPath(blobName);
+        if (!Files.exists(blob)) {
+            Files.createDirectories(blob.getParent());
+            writeAtomically(blob, bytes);
+            addedBytes.addAndGet(bytes.length);
+        }
+        writeAtomically(refDir.resolve(sha256(key.getBytes(StandardCharsets.UTF_8))),
+                blobName.getBytes(StandardCharsets.US_ASCII));
+        addedEntries.incrementAndGet();
+        if (sweptBytes + addedBytes.get() > maxCacheBytes || sweptEntries + addedEntries.get() > maxCacheEntries) {
+            CompletableFuture.runAsync(this::sweep);
+        }
+        return toCover(blob, blobName);
+    }
+
+    // Referans sayısı ya da blob boyutu sınırı aşarsa en uzun süredir kullanılmayanlar silinir;
+    // silinen kapak istenirse yeniden üretilir
+    @Scheduled(fixedDelayString = "${library.covers.sweep-interval:10m}")
+    public void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            addedBytes.set(0);
+            addedEntries.set(0);
+            List<CachedFile> refs = scan(refDir);
+            sweptEntries = evict(refs, refs.size(), maxCacheEntries, file -> 1L);
+            List<CachedFile> blobs = scan(blobDir);
+            long total = blobs.stream().mapToLong(CachedFile::size).sum();
+            sweptBytes = evict(blobs, total, maxCacheBytes, CachedFile::size);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Cover cache sweep failed: {}", e.getMessage());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    // Eskiden yeniye silerek toplamı sınırın altına indirir; kalan toplamı döndürür
+    private long evict(List<CachedFile> files, long total, long limit,
+                       ToLongFunction<CachedFile> weight) throws IOException {
+        if (total <= limit) {
+            return total;
+        }
+        long target = (long) (limit * SWEEP_TARGET_RATIO);
+        files.sort(Comparator.comparingLong(CachedFile::modified));
+        int evicted = 0;
+        for (CachedFile file : files) {
+            if (total <= target) {
+                break;
+            }
+            if (Files.deleteIfExists(file.path())) {
+                evicted++;
+            }
+            total -= weight.applyAsLong(file);
+        }
+        evictions.increment(evicted);
+        log.info("Cover cache sweep removed {} files", evicted);
+        return total;
+    }
+
+    private static List<CachedFile> scan(Path dir) throws IOException {
+        List<CachedFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (path.getFileName().toString().startsWith(TEMP_PREFIX)) {
+                    continue;
+                }
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    if (attributes.isRegularFile()) {
+                        files.add(new CachedFile(path, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                    }
+                } catch (NoSuchFileException e) {
+                    // Tarama sırasında silinmiş
+                }
+            }
+        }
+        return files;
+    }
+
+    private record CachedFile(Path path, long size, long modified) {
+    }
+
+    private Cover toCover(Path blob, String blobName) throws IOException {
+        int dot = blobName.lastIndexOf('.');
+        String contentType = blobName.endsWith(".png") ? "image/png" : "image/jpeg";
+        // Referans var ama dosya silinmişse NoSuchFileException; çağıran yeniden üretir
+        return new Cover(blob, Files.size(blob), contentType, blobName.substring(0, dot), false);
+    }
+
+    private Path blobPath(String blobName) {
+        return blobDir.resolve(blobName.substring(0, 2)).resolve(blobName);
+    }
+
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), TEMP_PREFIX, null);
+        try {
+            Files.write(temp, bytes);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Yalnızca izin verilen hostlardaki http(s) adresleri vekillenir; varsayılan dışı port için
+    // izin listesinde host:port yazılmalıdır
+    private URI checkSource(String url) {
+        if (url == null || url.isBlank()) {
+            throw new BadRequestException("Kapak adresi boş olamaz");
+        }
+        URI uri;
+        try {
+            uri = new URI(url.trim());
+        } catch (URISyntaxException e) {
+            throw new BadRequestException("Geçersiz kapak adresi");
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        if (!(scheme.equals("http") || scheme.equals("https")) || uri.getUserInfo() != null) {
+            throw new BadRequestException("Bu adresten kapak alınamaz: " + host);
+        }
+        int port = uri.getPort();
+        boolean defaultPort = port == -1 || port == (scheme.equals("https") ? 443 : 80);
+        if (!(defaultPort ? allowedHosts.contains(host) : allowedHosts.contains(host + ":" + port))) {
+            throw new BadRequestException("Bu adresten kapak alınamaz: " + uri.getAuthority());
+        }
+        return uri;
+    }
+
+    private static List<String> candidates(BookCoverUrls urls, Size size) {
+        return switch (size) {
+            case SMALL -> Arrays.asList(urls.thumbnail(), urls.smallThumbnail(), urls.mediumImage(), urls.largeImage());
+            case MEDIUM -> Arrays.asList(urls.thumbnail(), urls.mediumImage(), urls.largeImage(), urls.smallThumbnail());
+            case LARGE -> Arrays.asList(urls.mediumImage(), urls.largeImage(), urls.thumbnail(), urls.smallThumbnail());
+        };
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("library.covers.requests")
+                .tag("result", result)
+                .description("Cover proxy lookups by outcome")
+                .register(registry);
+    }
+
+    @FunctionalInterface
+    private interface ImageProducer {
+        byte[] produce() throws IOException;
+    }
+}
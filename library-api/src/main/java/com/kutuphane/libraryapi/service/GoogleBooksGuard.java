@@ -0,0 +1,309 @@
+package com.kutuphane.libraryapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Google Books önünde dayanıklılık katmanı: bulkhead, devre kesici, uyarlanır zaman aşımı ve hedging;
+// reddedilen çağrılar UpstreamRejectedException olarak döner
+@Component
+public class GoogleBooksGuard {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public static class UpstreamRejectedException extends RuntimeException {
+        private final String reason;
+
+        UpstreamRejectedException(String reason) {
+            super("Google Books call rejected: " + reason);
+            this.reason = reason;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final Semaphore bulkhead;
+    private final int maxConcurrent;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final Duration minTimeout;
+    private final Duration maxTimeout;
+    private final double timeoutMultiplier;
+    private final boolean hedgeEnabled;
+    private final Duration hedgeMinDelay;
+
+    // Devre kesici durumu; tüm alanlar 'this' kilidiyle korunur
+    private State state = State.CLOSED;
+    private final boolean[] outcomes;
+    private int outcomeIndex;
+    private int outcomeCount;
+    private int failureCount;
+    private long openUntilNanos;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    // Son başarılı çağrıların süreleri (ns); p95/p99 her RECOMPUTE_EVERY kayıtta bir yeniden hesaplanır
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyIndex;
+    private int latencyCount;
+    private int sinceRecompute;
+    private volatile Duration currentTimeout;
+    private volatile Duration currentHedgeDelay;
+
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+    private final Counter hedges;
+
+    @Autowired
+    public GoogleBooksGuard(MeterRegistry meterRegistry,
+                            @Value("${google.books.bulkhead.max-concurrent:20}") int maxConcurrent,
+                            @Value("${google.books.circuit.failure-rate-threshold:0.5}") double failureRateThreshold,
+                            @Value("${google.books.circuit.window-size:20}") int windowSize,
+                            @Value("${google.books.circuit.minimum-calls:10}") int minimumCalls,
+                            @Value("${google.books.circuit.open-duration:30s}") Duration openDuration,
+                            @Value("${google.books.circuit.half-open-probes:3}") int halfOpenProbes,
+                            @Value("${google.books.timeout.min:500ms}") Duration minTimeout,
+                            @Value("${google.books.timeout.max:10s}") Duration maxTimeout,
+                            @Value("${google.books.timeout.p99-multiplier:2.0}") double timeoutMultiplier,
+                            @Value("${google.books.hedge.enabled:true}") boolean hedgeEnabled,
+                            @Value("${google.books.hedge.min-delay:150ms}") Duration hedgeMinDelay) {
+        this.maxConcurrent = maxConcurrent;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.failureRateThreshold = failureRateThreshold;
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.minTimeout = minTimeout;
+        this.maxTimeout = maxTimeout;
+        this.timeoutMultiplier = timeoutMultiplier;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelay = hedgeMinDelay;
+        // Yeterli örnek gelene kadar eski sabit 10 sn davranışı
+        this.currentTimeout = maxTimeout;
+        this.currentHedgeDelay = null;
+
+        this.bulkheadRejections = rejectionCounter(meterRegistry, "bulkhead");
+        this.circuitRejections = rejectionCounter(meterRegistry, "circuit_open");
+        this.hedges = Counter.builder("google.books.upstream.hedges")
+                .description("Hedged second requests sent to Google Books")
+                .register(meterRegistry);
+        Gauge.builder("google.books.circuit.state", this, guard -> guard.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+        Gauge.builder("google.books.upstream.timeout", this, guard -> guard.currentTimeout.toMillis())
+                .description("Current adaptive upstream timeout in milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("google.books.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .register(meterRegistry);
+    }
+
+    // Çağrıyı devre kesici, bulkhead, zaman aşımı ve (yeterli örnek varsa) ikinci deneme ile çalıştırır
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquireCircuit()) {
+                circuitRejections.increment();
+                return Mono.error(new UpstreamRejectedException("circuit_open"));
+            }
+            if (!bulkhead.tryAcquire()) {
+                bulkheadRejections.increment();
+                onCallIgnored();
+                return Mono.error(new UpstreamRejectedException("bulkhead"));
+            }
+            Duration timeout = currentTimeout;
+            Mono<T> primary = attempt(call, timeout);
+            Duration hedgeDelay = currentHedgeDelay;
+            Mono<T> guarded = primary;
+            if (hedgeEnabled && hedgeDelay != null && hedgeDelay.compareTo(timeout) < 0) {
+                // Hedge yalnızca boş bulkhead izni varsa gider; yoksa boş tamamlanır ve ilk çağrının sonucu belirler
+                Mono<T> hedge = Mono.delay(hedgeDelay)
+                        .then(Mono.defer(() -> {
+                            if (!bulkhead.tryAcquire()) {
+                                return Mono.<T>empty();
+                            }
+                            hedges.increment();
+                            return attempt(call, timeout);
+                        }));
+                guarded = Mono.firstWithValue(primary, hedge)
+                        .onErrorMap(e -> e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e);
+            }
+            return guarded
+                    .doOnSuccess(value -> onCallSuccess())
+                    .doOnError(this::onCallFailure)
+                    .doOnCancel(this::onCallIgnored);
+        });
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() >= openUntilNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("state", getState());
+            stats.put("windowCalls", outcomeCount);
+            stats.put("windowFailures", failureCount);
+        }
+        stats.put("timeoutMillis", currentTimeout.toMillis());
+        Duration hedgeDelay = currentHedgeDelay;
+        stats.put("hedgeDelayMillis", hedgeEnabled && hedgeDelay != null ? hedgeDelay.toMillis() : null);
+        stats.put("inFlight", maxConcurrent - bulkhead.availablePermits());
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("bulkheadRejections", (long) bulkheadRejections.count());
+        stats.put("circuitRejections", (long) circuitRejections.count());
+        stats.put("hedges", (long) hedges.count());
+        return stats;
+    }
+
+    // Tek bir upstream denemesi; bulkhead izni çağıran tarafından alınmıştır ve burada bırakılır
+    private <T> Mono<T> attempt(Supplier<Mono<T>> call, Duration timeout) {
+        long started = System.nanoTime();
+        return Mono.defer(call)
+                .timeout(timeout)
+                .doOnSuccess(value -> recordLatency(System.nanoTime() - started))
+                .doFinally(signal -> bulkhead.release());
+    }
+
+    private synchronized boolean tryAcquireCircuit() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() < openUntilNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    private synchronized void onCallSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probeSuccesses >= halfOpenProbes) {
+                state = State.CLOSED;
+                resetWindow();
+            }
+        } else if (state == State.CLOSED) {
+            recordOutcome(false);
+        }
+    }
+
+    private synchronized void onCallFailure(Throwable e) {
+        if (!countsAsFailure(e)) {
+            onCallIgnored();
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            recordOutcome(true);
+            if (outcomeCount >= minimumCalls && failureCount >= failureRateThreshold * outcomeCount) {
+                open();
+            }
+        }
+    }
+
+    // Sonucu devreyi etkilemeyen çağrılar (iptal, bulkhead reddi, 4xx): yarı açık izni geri ver
+    private synchronized void onCallIgnored() {
+        if (state == State.HALF_OPEN && probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    // 4xx (429 hariç) bizim isteğimizin hatasıdır; upstream sağlığını göstermez
+    private static boolean countsAsFailure(Throwable e) {
+        if (e instanceof UpstreamRejectedException) {
+            return false;
+        }
+        if (e instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == 429 || status >= 500;
+        }
+        return true;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntilNanos = System.nanoTime() + openNanos;
+        resetWindow();
+    }
+
+    private void recordOutcome(boolean failed) {
+        if (outcomeCount == outcomes.length) {
+            if (outcomes[outcomeIndex]) {
+                failureCount--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[outcomeIndex] = failed;
+        if (failed) {
+            failureCount++;
+        }
+        outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+    }
+
+    private void resetWindow() {
+        Arrays.fill(outcomes, false);
+        outcomeIndex = 0;
+        outcomeCount = 0;
+        failureCount = 0;
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencies[latencyIndex] = nanos;
+        latencyIndex = (latencyIndex + 1) % LATENCY_SAMPLES;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+        if (latencyCount >= MIN_LATENCY_SAMPLES && ++sinceRecompute >= RECOMPUTE_EVERY) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            long p95 = sorted[(int) Math.ceil(0.95 * latencyCount) - 1];
+            long p99 = sorted[(int) Math.ceil(0.99 * latencyCount) - 1];
+            currentTimeout = clamp(Duration.ofNanos((long) (p99 * timeoutMultiplier)), minTimeout, maxTimeout);
+            currentHedgeDelay = clamp(Duration.ofNanos(p95), hedgeMinDelay, maxTimeout);
+        }
+    }
+
+    private static Duration clamp(Duration value, Duration min, Duration max) {
+        return value.compareTo(min) < 0 ? min : value.compareTo(max) > 0 ? max : value;
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("google.books.upstream.rejected")
+                .description("Google Books calls rejected without reaching the upstream")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -3,55 +3,160 @@ package com.kutuphane.libraryapi.service;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.util.UriComponentsBuilder;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.time.Duration;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class GoogleBooksService {
     
+    private static final Logger log = LoggerFactory.getLogger(GoogleBooksService.class);
+    
     private final WebClient webClient;
-    private static final String GOOGLE_BOOKS_API_URL = "https://www.googleapis.com/books/v1/volumes";
+    private static final int MAX_RESULTS_LIMIT = 40;
+    
+    // Varsayılan Google Books; yük testlerinde yerel stub'a yönlendirilir (loadtest/)
+    private final String apiUrl;
     
     @Value("${google.books.api.key:}")
     private String apiKey;
     
-    public GoogleBooksService() {
+    // Aynı sorgu için eşzamanlı istekler tek bir upstream çağrısını paylaşır (single-flight)
+    private final AsyncCache<SearchKey, List<BookSuggestion>> searchCache;
+    
+    private final MeterRegistry meterRegistry;
+    private final GoogleBooksGuard guard;
+    
+    public GoogleBooksService(
+            MeterRegistry meterRegistry,
+            GoogleBooksGuard guard,
+            @Value("${google.books.api.url:https://www.googleapis.com/books/v1/volumes}") String apiUrl,
+            @Value("${google.books.cache.max-size:10000}") long cacheMaxSize,
+            @Value("${google.books.cache.ttl:10m}") Duration cacheTtl,
+            @Value("${google.books.cache.negative-ttl:1m}") Duration negativeCacheTtl) {
         this.webClient = WebClient.builder()
             .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024))
             .build();
+        this.apiUrl = apiUrl;
+        this.searchCache = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfter(new SearchResultExpiry(cacheTtl, negativeCacheTtl))
+            .recordStats()
+            .buildAsync();
+        this.meterRegistry = meterRegistry;
+        this.guard = guard;
+        CaffeineCacheMetrics.monitor(meterRegistry, searchCache, "google-books-search");
     }
     
     public List<BookSuggestion> searchBooks(String query, int maxResults) {
+        return searchBooksAsync(query, maxResults).block();
+    }
+    
+    // Non-blocking variant: no request thread waits on googleapis.com
+    public Mono<List<BookSuggestion>> searchBooksAsync(String query, int maxResults) {
         if (query == null || query.trim().length() < 3) {
-            return new ArrayList<>();
+            return Mono.just(List.of());
         }
         
-        try {
-            String url = buildSearchUrl(query.trim(), maxResults);
-            
-            GoogleBooksResponse response = webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(GoogleBooksResponse.class)
-                .timeout(Duration.ofSeconds(10))
-                .block();
-                
-            return convertToBookSuggestions(response);
-            
-        } catch (Exception e) {
-            System.err.println("Error searching Google Books API: " + e.getMessage());
-            return new ArrayList<>();
+        SearchKey key = SearchKey.of(query, maxResults);
+        // Failed loads are dropped from the cache automatically, so errors are retried.
+        // Cancellation is suppressed because the in-flight future is shared by every waiter.
+        return Mono.fromFuture(searchCache.get(key, (k, executor) -> fetchBooks(k).toFuture()), true)
+            .onErrorResume(e -> {
+                // Devre açıkken her istek loglanmasın; sayılar google.books.upstream.* metriklerinde
+                if (e instanceof GoogleBooksGuard.UpstreamRejectedException) {
+                    log.debug("Google Books call skipped: {}", e.getMessage());
+                } else {
+                    log.warn("Error searching Google Books API: {}", e.toString());
+                }
+                return Mono.just(List.of());
+            });
+    }
+    
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = searchCache.synchronous().stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("size", searchCache.synchronous().estimatedSize());
+        response.put("hitCount", stats.hitCount());
+        response.put("missCount", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictionCount", stats.evictionCount());
+        response.put("loadFailureCount", stats.loadFailureCount());
+        response.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        response.put("upstream", guard.getStats());
+        return response;
+    }
+    
+    private Mono<List<BookSuggestion>> fetchBooks(SearchKey key) {
+        String url = buildSearchUrl(key.query(), key.maxResults());
+        
+        // Sadece cache miss'ler upstream'e gider; süre abone olunduğunda başlar
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            // Devre kesici, bulkhead, uyarlanır zaman aşımı ve hedge GoogleBooksGuard'da
+            return guard.execute(() -> webClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .bodyToMono(GoogleBooksResponse.class))
+                .map(response -> List.copyOf(convertToBookSuggestions(response)))
+                .defaultIfEmpty(List.of())
+                .doOnSuccess(suggestions -> sample.stop(upstreamTimer("success")))
+                .doOnError(e -> {
+                    String outcome = upstreamOutcome(e);
+                    sample.stop(upstreamTimer(outcome));
+                    Counter.builder("google.books.upstream.errors")
+                        .description("Failed Google Books API calls by cause")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .increment();
+                });
+        });
+    }
+    
+    private Timer upstreamTimer(String outcome) {
+        return Timer.builder("google.books.upstream")
+            .description("Google Books API call latency (cache misses only)")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+    
+    private static String upstreamOutcome(Throwable e) {
+        if (e instanceof GoogleBooksGuard.UpstreamRejectedException rejected) {
+            return "rejected_" + rejected.getReason();
+        }
+        if (e instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
         }
+        return "io_error";
     }
     
     private String buildSearchUrl(String query, int maxResults) {
-        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(GOOGLE_BOOKS_API_URL)
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(apiUrl)
             .queryParam("q", query)
-            .queryParam("maxResults", Math.min(maxResults, 40))
+            .queryParam("maxResults", Math.min(maxResults, MAX_RESULTS_LIMIT))
             .queryParam("printType", "books")
             .queryParam("projection", "lite");
             
@@ -62,7 +167,8 @@ public class GoogleBooksService {
         return builder.toUriString();
     }
     
-    private List<BookSuggestion> convertToBookSuggestions(GoogleBooksResponse response) {
+    // Google Books yanıtını öneri listesine çevir
+    static List<BookSuggestion> convertToBookSuggestions(GoogleBooksResponse response) {
         List<BookSuggestion> suggestions = new ArrayList<>();
         
         if (response == null || response.items == null) {
@@ -129,6 +235,40 @@ public class GoogleBooksService {
         return suggestions;
     }
     
+    // Cache key: whitespace-collapsed, lower-cased query plus the effective result count
+    record SearchKey(String query, int maxResults) {
+        static SearchKey of(String query, int maxResults) {
+            String normalized = query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            return new SearchKey(normalized, Math.max(1, Math.min(maxResults, MAX_RESULTS_LIMIT)));
+        }
+    }
+    
+    // Empty results (negative hits) expire sooner than real ones
+    private static final class SearchResultExpiry implements Expiry<SearchKey, List<BookSuggestion>> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+        
+        SearchResultExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+        
+        @Override
+        public long expireAfterCreate(SearchKey key, List<BookSuggestion> value, long currentTime) {
+            return value.isEmpty() ? negativeTtlNanos : ttlNanos;
+        }
+        
+        @Override
+        public long expireAfterUpdate(SearchKey key, List<BookSuggestion> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(SearchKey key, List<BookSuggestion> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+    
     // Google Books API Response DTOs
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class GoogleBooksResponse {
@@ -177,6 +317,8 @@ public class GoogleBooksService {
     
     // Book Suggestion DTO for frontend
     public static class BookSuggestion {
+        // Yerel katalogdan gelen önerilerde books.id; Google Books sonuçlarında null
+        private Long bookId;
         private String googleId;
         private String title;
         private String subtitle;
@@ -202,6 +344,9 @@ public class GoogleBooksService {
         private String infoLink;
         
         // Getters and Setters
+        public Long getBookId() { return bookId; }
+        public void setBookId(Long bookId) { this.bookId = bookId; }
+        
         public String getGoogleId() { return googleId; }
         public void setGoogleId(String googleId) { this.googleId = googleId; }
         
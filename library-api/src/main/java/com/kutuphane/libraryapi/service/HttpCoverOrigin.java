@@ -0,0 +1,62 @@
+package com.kutuphane.libraryapi.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// JDK HttpClient ile indirme; boyut sınırı aşılırsa okuma kesilir
+public class HttpCoverOrigin implements CoverOrigin {
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final long maxBytes;
+
+    public HttpCoverOrigin(Duration timeout, long maxBytes) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                // Yönlendirmeler izlenmez; izin verilen host listesi başka bir adrese atlanarak aşılamasın
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.timeout = timeout;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public byte[] fetch(URI source) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(source)
+                .timeout(timeout)
+                .header("Accept", "image/*")
+                .GET()
+                .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + source, e);
+        }
+        try (InputStream body = response.body()) {
+            if (response.statusCode() == 404 || response.statusCode() == 410) {
+                return null;
+            }
+            if (response.statusCode() != 200) {
+                throw new IOException("Cover origin answered " + response.statusCode() + " for " + source);
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (bytes.size() + read > maxBytes) {
+                    throw new IOException("Cover larger than " + maxBytes + " bytes: " + source);
+                }
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.kutuphane.libraryapi.service;
+
+import com.kutuphane.libraryapi.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// BCrypt sınırlı bir executor'da çalışır; kuyruk doluysa istek beklemeden 503 ile reddedilir
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutNanos;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final Timer hashTimer;
+    private final Timer queueWaitTimer;
+
+    @Autowired
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.password.hash-threads:0}") int hashThreads,
+                                  @Value("${security.password.hash-queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.password.hash-timeout:5s}") Duration waitTimeout) {
+        this.passwordEncoder = passwordEncoder;
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+
+        // Havuz (aktif, kuyruk, tamamlanan), hash ve kuyrukta bekleme süreleri, ret/zaman aşımı sayaçları
+        new ExecutorServiceMetrics(executor, "password-hash", List.of()).bindTo(meterRegistry);
+        this.hashTimer = Timer.builder("password.hash.duration")
+                .description("Time spent running BCrypt on the hashing pool")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("password.hash.queue.wait")
+                .description("Time a hash request waited in the queue before a pool thread picked it up")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        FunctionCounter.builder("password.hash.rejected", rejected, LongAdder::sum)
+                .description("Hash requests rejected because the queue was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("password.hash.timeouts", timedOut, LongAdder::sum)
+                .description("Hash requests that exceeded security.password.hash-timeout")
+                .register(meterRegistry);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    // Saklanan hash yapılandırılmış maliyetten zayıfsa true döner
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", executor.getMaximumPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        stats.put("completed", hashTimer.count());
+        stats.put("rejected", rejected.sum());
+        stats.put("timedOut", timedOut.sum());
+        // max değerleri Micrometer'ın kayan penceresindendir
+        stats.put("averageHashMillis", hashTimer.mean(TimeUnit.MILLISECONDS));
+        stats.put("maxHashMillis", hashTimer.max(TimeUnit.MILLISECONDS));
+        stats.put("averageQueueWaitMillis", queueWaitTimer.mean(TimeUnit.MILLISECONDS));
+        stats.put("maxQueueWaitMillis", queueWaitTimer.max(TimeUnit.MILLISECONDS));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long enqueued = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    queueWaitTimer.record(started - enqueued, TimeUnit.NANOSECONDS);
+                    hashTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Sunucu şu anda yoğun, lütfen tekrar deneyin");
+        }
+
+        try {
+            return future.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new ServiceUnavailableException("Sunucu şu anda yoğun, lütfen tekrar deneyin");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ServiceUnavailableException("Parola doğrulaması kesildi");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
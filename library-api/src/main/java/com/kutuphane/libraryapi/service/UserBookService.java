@@ -1,35 +1,69 @@
 package com.kutuphane.libraryapi.service;
 
+import com.kutuphane.libraryapi.dto.BookPage;
+import com.kutuphane.libraryapi.dto.BookSummary;
+import com.kutuphane.libraryapi.dto.BulkItemResult;
+import com.kutuphane.libraryapi.dto.BulkResult;
+import com.kutuphane.libraryapi.event.BookChangedEvent;
+import com.kutuphane.libraryapi.event.CollectionChangedEvent;
+import com.kutuphane.libraryapi.exception.BadRequestException;
+import com.kutuphane.libraryapi.exception.ResourceNotFoundException;
 import com.kutuphane.libraryapi.service.GoogleBooksService.BookSuggestion;
 import com.kutuphane.libraryapi.model.Book;
-import com.kutuphane.libraryapi.model.User;
+import com.kutuphane.libraryapi.repository.BookBatchRepository;
 import com.kutuphane.libraryapi.repository.BookRepository;
 import com.kutuphane.libraryapi.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
+@Timed(value = "library.user-book.service", histogram = true)
 public class UserBookService {
 
+    private static final int MEMBERSHIP_CHUNK_SIZE = 500;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    static final int MAX_BULK_ADD_SIZE = 1000;
+
     @Autowired
     private BookRepository bookRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BookBatchRepository bookBatchRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public Book addBookToUserCollection(String username, BookSuggestion bookSuggestion) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        Long userId = userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + username));
 
-        // Check if book already exists by Google Books ID or title+author
+        // Check if book already exists by local id, Google Books ID or title+author
         Book existingBook = null;
-        if (bookSuggestion.getGoogleId() != null) {
+        if (bookSuggestion.getBookId() != null) {
+            existingBook = bookRepository.findById(bookSuggestion.getBookId()).orElse(null);
+        }
+        
+        if (existingBook == null && bookSuggestion.getGoogleId() != null) {
             existingBook = bookRepository.findByGoogleBooksId(bookSuggestion.getGoogleId()).orElse(null);
         }
         
@@ -45,18 +79,204 @@ public class UserBookService {
             // Create new book from BookSuggestion
             book = createBookFromSuggestion(bookSuggestion);
             book = bookRepository.save(book);
+            eventPublisher.publishEvent(BookChangedEvent.created(book));
         }
 
-        // Check if user already has this book
-        if (!user.getBooks().contains(book)) {
-            user.addBook(book);
-            userRepository.save(user);
+        // Idempotent insert into user_books; neither side's collection is loaded
+        if (userRepository.insertCollectionEntry(userId, book.getId()) > 0) {
+            eventPublisher.publishEvent(CollectionChangedEvent.added(userId, book.getId()));
         }
 
         return book;
     }
 
-    private Book createBookFromSuggestion(BookSuggestion suggestion) {
+    // Katalogdaki mevcut bir kitabı koleksiyona ekle; zaten varsa false döner
+    @Transactional
+    public boolean addBookToUserCollection(String username, Long bookId) {
+        Long userId = userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + username));
+        if (!bookRepository.existsById(bookId)) {
+            throw new ResourceNotFoundException("Kitap bulunamadı: " + bookId);
+        }
+        if (userRepository.insertCollectionEntry(userId, bookId) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(CollectionChangedEvent.added(userId, bookId));
+        return true;
+    }
+
+    // addBookToUserCollection'ın toplu hali: eşleşmeler parça parça IN sorgularıyla çözülür, tek transaction
+    @Transactional
+    public BulkResult addBooksToUserCollection(String username, List<BookSuggestion> suggestions) {
+        if (suggestions == null || suggestions.isEmpty()) {
+            throw new BadRequestException("Kitap listesi boş olamaz");
+        }
+        if (suggestions.size() > MAX_BULK_ADD_SIZE) {
+            throw new BadRequestException("Tek istekte en fazla " + MAX_BULK_ADD_SIZE + " kitap eklenebilir");
+        }
+        Long userId = userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + username));
+
+        // Eşleşme anahtarlarını topla ve her tür için tek seferde çöz
+        Set<Long> bookIds = new HashSet<>();
+        Set<String> googleIds = new HashSet<>();
+        Map<String, String[]> titleAuthors = new HashMap<>();
+        for (BookSuggestion suggestion : suggestions) {
+            if (suggestion == null) {
+                continue;
+            }
+            if (suggestion.getBookId() != null) {
+                bookIds.add(suggestion.getBookId());
+            }
+            if (!isBlank(suggestion.getGoogleId())) {
+                googleIds.add(suggestion.getGoogleId());
+            }
+            if (!isBlank(suggestion.getTitle()) && !isBlank(suggestion.getAuthors())) {
+                titleAuthors.putIfAbsent(titleAuthorKey(suggestion),
+                        new String[]{suggestion.getTitle(), suggestion.getAuthors()});
+            }
+        }
+        Set<Long> existingIds = bookBatchRepository.findExistingIds(bookIds);
+        Map<String, Long> idsByGoogleId = bookBatchRepository.findIdsByGoogleBooksIds(googleIds);
+        Map<String, Long> idsByTitleAuthor = bookBatchRepository.findIdsByTitleAndAuthor(titleAuthors.values());
+
+        BulkItemResult[] results = new BulkItemResult[suggestions.size()];
+        Long[] resolved = new Long[suggestions.size()];
+        Book[] pending = new Book[suggestions.size()];
+        List<Book> toInsert = new ArrayList<>();
+        // Aynı istekte iki kez gelen yeni kitap bir kez oluşturulur
+        Map<String, Book> createdByKey = new HashMap<>();
+        for (int i = 0; i < suggestions.size(); i++) {
+            BookSuggestion suggestion = suggestions.get(i);
+            if (suggestion == null) {
+                results[i] = new BulkItemResult(i, BulkItemResult.Status.INVALID, null, "Kitap bilgisi boş");
+                continue;
+            }
+            Long bookId = null;
+            if (suggestion.getBookId() != null && existingIds.contains(suggestion.getBookId())) {
+                bookId = suggestion.getBookId();
+            }
+            if (bookId == null && !isBlank(suggestion.getGoogleId())) {
+                bookId = idsByGoogleId.get(suggestion.getGoogleId());
+            }
+            if (bookId == null && !isBlank(suggestion.getTitle()) && !isBlank(suggestion.getAuthors())) {
+                bookId = idsByTitleAuthor.get(titleAuthorKey(suggestion));
+            }
+            if (bookId != null) {
+                resolved[i] = bookId;
+                continue;
+            }
+            if (isBlank(suggestion.getTitle()) || isBlank(suggestion.getAuthors())) {
+                results[i] = new BulkItemResult(i, BulkItemResult.Status.INVALID, null, "Başlık ve yazar zorunludur");
+                continue;
+            }
+            Book book = createdByKey.get(titleAuthorKey(suggestion));
+            if (book == null && !isBlank(suggestion.getGoogleId())) {
+                book = createdByKey.get(suggestion.getGoogleId());
+            }
+            if (book == null) {
+                book = createBookFromSuggestion(suggestion);
+                if (isBlank(book.getGoogleBooksId())) {
+                    book.setGoogleBooksId(null);
+                }
+                String invalid = BookBatchRepository.invalidColumn(book);
+                if (invalid != null) {
+                    results[i] = new BulkItemResult(i, BulkItemResult.Status.INVALID, null, invalid);
+                    continue;
+                }
+                toInsert.add(book);
+                createdByKey.put(titleAuthorKey(suggestion), book);
+                if (!isBlank(suggestion.getGoogleId())) {
+                    createdByKey.put(suggestion.getGoogleId(), book);
+                }
+            }
+            pending[i] = book;
+        }
+
+        Set<Long> inserted = bookBatchRepository.insertAll(toInsert);
+        // Sorgudan sonra başka bir istekle eklenen Google Books ID'leri mevcut kitaba bağlanır
+        List<String> raced = new ArrayList<>();
+        for (Book book : toInsert) {
+            if (!inserted.contains(book.getId())) {
+                raced.add(book.getGoogleBooksId());
+            }
+        }
+        Map<String, Long> racedIds = raced.isEmpty() ? Map.of() : bookBatchRepository.findIdsByGoogleBooksIds(raced);
+        Set<Long> wanted = new LinkedHashSet<>();
+        for (int i = 0; i < suggestions.size(); i++) {
+            if (pending[i] != null) {
+                if (inserted.contains(pending[i].getId())) {
+                    resolved[i] = pending[i].getId();
+                } else {
+                    resolved[i] = racedIds.get(pending[i].getGoogleBooksId());
+                    pending[i] = null;
+                    if (resolved[i] == null) {
+                        results[i] = new BulkItemResult(i, BulkItemResult.Status.INVALID, null, "Kitap eklenemedi");
+                    }
+                }
+            }
+            if (resolved[i] != null) {
+                wanted.add(resolved[i]);
+            }
+        }
+        Set<Long> added = new HashSet<>(bookBatchRepository.insertCollectionEntries(userId, wanted));
+
+        Set<Long> reported = new HashSet<>();
+        for (int i = 0; i < suggestions.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Long bookId = resolved[i];
+            BulkItemResult.Status status;
+            if (!reported.add(bookId)) {
+                status = BulkItemResult.Status.DUPLICATE_IN_BATCH;
+            } else if (added.contains(bookId)) {
+                status = BulkItemResult.Status.ADDED;
+            } else {
+                status = BulkItemResult.Status.ALREADY_IN_COLLECTION;
+            }
+            results[i] = new BulkItemResult(i, status, bookId, pending[i] != null ? "Kataloğa eklendi" : null);
+        }
+
+        for (Book book : toInsert) {
+            if (inserted.contains(book.getId())) {
+                eventPublisher.publishEvent(BookChangedEvent.created(book));
+            }
+        }
+        for (Long bookId : wanted) {
+            if (added.contains(bookId)) {
+                eventPublisher.publishEvent(CollectionChangedEvent.added(userId, bookId));
+            }
+        }
+        return new BulkResult(List.of(results));
+    }
+
+    private static String titleAuthorKey(BookSuggestion suggestion) {
+        return BookBatchRepository.titleAuthorKey(suggestion.getTitle(), suggestion.getAuthors());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // Kullanıcının koleksiyonunu id sırasıyla sayfa sayfa getir
+    @Transactional(readOnly = true)
+    public BookPage getUserCollectionPage(String username, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            afterId = BookCursor.decode(cursor, BookCursor.Sort.ID_ASC).getId();
+        }
+        List<BookSummary> rows = userRepository.findCollectionPage(username, afterId, PageRequest.of(0, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new BookPage(rows, null);
+        }
+        List<BookSummary> content = rows.subList(0, pageSize);
+        return new BookPage(content, BookCursor.after(BookCursor.Sort.ID_ASC, content.get(pageSize - 1)).encode());
+    }
+
+    // Google Books önerisinden kaydedilmemiş Book nesnesi oluştur
+    static Book createBookFromSuggestion(BookSuggestion suggestion) {
         Book book = new Book();
         book.setTitle(suggestion.getTitle());
         book.setAuthor(suggestion.getAuthors());
@@ -101,25 +321,40 @@ public class UserBookService {
 
     @Transactional(readOnly = true)
     public boolean isBookInUserCollection(String username, String googleBooksId) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        if (!userOpt.isPresent()) {
+        if (googleBooksId == null) {
             return false;
         }
+        return userRepository.existsBookInCollection(username, googleBooksId);
+    }
 
-        User user = userOpt.get();
-        return user.getBooks().stream()
-                .anyMatch(book -> googleBooksId.equals(book.getGoogleBooksId()));
+    // Birden fazla Google Books ID'sini IN sorgularıyla tek çağrıda kontrol et
+    @Transactional(readOnly = true)
+    public Map<String, Boolean> areBooksInUserCollection(String username, List<String> googleBooksIds) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        List<String> distinct = new ArrayList<>();
+        for (String googleBooksId : googleBooksIds) {
+            if (googleBooksId != null && result.putIfAbsent(googleBooksId, false) == null) {
+                distinct.add(googleBooksId);
+            }
+        }
+        for (int from = 0; from < distinct.size(); from += MEMBERSHIP_CHUNK_SIZE) {
+            List<String> chunk = distinct.subList(from, Math.min(from + MEMBERSHIP_CHUNK_SIZE, distinct.size()));
+            for (String owned : userRepository.findGoogleBooksIdsInCollection(username, chunk)) {
+                result.put(owned, true);
+            }
+        }
+        return result;
     }
 
     @Transactional
-    public void removeBookFromUserCollection(String username, Long bookId) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
-
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new RuntimeException("Book not found: " + bookId));
+    public boolean removeBookFromUserCollection(String username, Long bookId) {
+        Long userId = userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + username));
 
-        user.removeBook(book);
-        userRepository.save(user);
+        if (userRepository.deleteCollectionEntry(userId, bookId) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(CollectionChangedEvent.removed(userId, bookId));
+        return true;
     }
 }
\ No newline at end of file
@@ -3,7 +3,6 @@ package com.kutuphane.libraryapi.service;
 import com.kutuphane.libraryapi.model.User;
 import com.kutuphane.libraryapi.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -15,7 +14,7 @@ public class UserService {
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     
     public User registerUser(String username, String email, String password) throws RuntimeException {
         if (userRepository.existsByUsername(username)) {
@@ -29,7 +28,7 @@ public class UserService {
         User user = new User();
         user.setUsername(username);
         user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(passwordHashingService.encode(password));
         user.setRole(User.Role.USER);
         
         return userRepository.save(user);
@@ -40,7 +39,16 @@ public class UserService {
         
         if (userOptional.isPresent()) {
             User user = userOptional.get();
-            return passwordEncoder.matches(password, user.getPassword());
+            if (!passwordHashingService.matches(password, user.getPassword())) {
+                return false;
+            }
+            
+            // Rehash transparently when the stored hash is weaker than the configured cost
+            if (passwordHashingService.needsUpgrade(user.getPassword())) {
+                user.setPassword(passwordHashingService.encode(password));
+                userRepository.save(user);
+            }
+            return true;
         }
         
         return false;
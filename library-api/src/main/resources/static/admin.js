@@ -220,7 +220,7 @@ class AdminDashboard {
             const tbody = document.getElementById('booksTableBody');
             tbody.innerHTML = '<tr><td colspan="6" class="loading-cell"><i class="fas fa-spinner fa-spin"></i> Loading books...</td></tr>';
 
-            const response = await fetch(this.booksURL);
+            const response = await fetch(`${this.booksURL}?size=200`);
             
             if (response.ok) {
                 const books = await response.json();
@@ -272,16 +272,17 @@ class AdminDashboard {
                 credentials: 'include'
             });
             
-            const booksResponse = await fetch(this.booksURL);
+            // Book counts come precomputed from the server instead of downloading the catalog
+            const statsResponse = await fetch('/api/stats');
 
-            if (usersResponse.ok && booksResponse.ok) {
+            if (usersResponse.ok && statsResponse.ok) {
                 const users = await usersResponse.json();
-                const books = await booksResponse.json();
+                const stats = await statsResponse.json();
 
                 // Calculate stats
                 const totalUsers = users.length;
                 const adminUsers = users.filter(user => user.role === 'ADMIN').length;
-                const totalBooks = books.length;
+                const totalBooks = stats.totalBooks;
                 
                 // Recent registrations (last 7 days)
                 const sevenDaysAgo = new Date();
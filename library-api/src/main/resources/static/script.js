@@ -3,6 +3,8 @@
 class LibraryManager {
     constructor() {
         this.books = [];
+        this.pageSize = 200;
+        this.nextCursor = null;
         this.currentView = 'grid';
         this.currentEditId = null;
         this.baseURL = '/api/books';
@@ -131,18 +133,24 @@ class LibraryManager {
         document.getElementById('goToSearchBtn').addEventListener('click', () => {
             this.scrollToBookSearch();
         });
+
+        // Next page of the catalog (X-Next-Cursor)
+        document.getElementById('loadMoreBtn').addEventListener('click', () => {
+            this.loadMoreBooks();
+        });
     }
 
     async loadBooks() {
         try {
             this.showLoading(true);
-            const response = await fetch(this.baseURL);
+            const response = await fetch(`${this.baseURL}?size=${this.pageSize}`);
             
             if (!response.ok) {
                 throw new Error(`HTTP error! status: ${response.status}`);
             }
             
             this.books = await response.json();
+            this.nextCursor = response.headers.get('X-Next-Cursor');
             this.renderBooks();
             this.updateStats();
             this.showToast('success', 'Books loaded successfully');
@@ -155,6 +163,32 @@ class LibraryManager {
         }
     }
 
+    async loadMoreBooks() {
+        if (!this.nextCursor) {
+            return;
+        }
+        const button = document.getElementById('loadMoreBtn');
+        button.disabled = true;
+        try {
+            const response = await fetch(`${this.baseURL}?size=${this.pageSize}&cursor=${encodeURIComponent(this.nextCursor)}`);
+            
+            if (!response.ok) {
+                throw new Error(`HTTP error! status: ${response.status}`);
+            }
+            
+            const page = await response.json();
+            this.books = this.books.concat(page);
+            this.nextCursor = response.headers.get('X-Next-Cursor');
+            this.renderBooks();
+            this.updateStats();
+        } catch (error) {
+            console.error('Error loading more books:', error);
+            this.showToast('error', 'Failed to load more books', error.message);
+        } finally {
+            button.disabled = false;
+        }
+    }
+
     async saveBook() {
         const formData = new FormData(document.getElementById('bookForm'));
         const bookData = {
@@ -284,6 +318,10 @@ class LibraryManager {
             loading.style.display = 'none';
         }
 
+        // "Load more" only applies to the full catalog, not to search results
+        document.getElementById('loadMoreContainer').style.display =
+            booksToRender === this.books && this.nextCursor ? 'block' : 'none';
+
         if (booksToRender.length === 0) {
             container.innerHTML = `
                 <div class="empty-state">
@@ -484,6 +522,17 @@ class LibraryManager {
         return div.innerHTML;
     }
 
+    // Covers go through the server-side proxy (resized, cached); local books by id
+    coverSrc(book, size, placeholder) {
+        if (book.bookId) {
+            return `/api/books/${book.bookId}/cover?size=${size}`;
+        }
+        const url = size === 'small'
+            ? (book.thumbnail || book.smallThumbnail)
+            : (book.mediumImage || book.thumbnail || book.smallThumbnail);
+        return url ? `/api/covers?size=${size}&url=${encodeURIComponent(url)}` : placeholder;
+    }
+
     // Authentication methods
     async checkAuthStatus() {
         try {
@@ -757,7 +806,7 @@ class LibraryManager {
         container.innerHTML = suggestions.map(book => `
             <div class="suggestion-item" onclick="libraryManager.selectSuggestion('${this.escapeHtml(JSON.stringify(book).replace(/'/g, "\\'"))}')">
                 <img class="suggestion-cover" 
-                     src="${book.thumbnail || book.smallThumbnail || '/api/placeholder/50x75'}" 
+                     src="${this.coverSrc(book, 'small', '/api/placeholder/50x75')}" 
                      alt="${this.escapeHtml(book.title)}"
                      onerror="this.src='/api/placeholder/50x75'">
                 <div class="suggestion-info">
@@ -803,7 +852,7 @@ class LibraryManager {
     }
 
     createBookCard(book) {
-        const coverUrl = book.mediumImage || book.thumbnail || book.smallThumbnail || '/api/placeholder/120x180';
+        const coverUrl = this.coverSrc(book, 'medium', '/api/placeholder/120x180');
         const title = this.escapeHtml(book.title || 'Unknown Title');
         const authors = this.escapeHtml(book.authors || 'Unknown Author');
         const publisher = book.publisher ? this.escapeHtml(book.publisher) : '';
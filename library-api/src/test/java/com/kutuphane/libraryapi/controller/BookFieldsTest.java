@@ -0,0 +1,53 @@
+package com.kutuphane.libraryapi.controller;
+
+import com.kutuphane.libraryapi.dto.BookSummary;
+import com.kutuphane.libraryapi.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class BookFieldsTest {
+
+    private static final BookSummary BOOK = new BookSummary(1L, "Kar", "Orhan Pamuk", "9789750800015",
+            LocalDate.of(2002, 1, 1), 426, "İletişim", "tr", "g-1", null, null, null, null);
+
+    @Test
+    void missingParameterMeansAllFields() {
+        assertThat(BookFields.parse(null)).isNull();
+        assertThat(BookFields.parse("  ")).isNull();
+        assertThat(BookFields.select(List.of(BOOK), null)).isEqualTo(List.of(BOOK));
+    }
+
+    @Test
+    void alwaysIncludesIdAndIgnoresBlanks() {
+        assertThat(BookFields.parse(" title, ,author,")).containsExactlyInAnyOrder("id", "title", "author");
+    }
+
+    @Test
+    void rejectsUnknownFields() {
+        assertThatThrownBy(() -> BookFields.parse("title,description"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("description");
+    }
+
+    @Test
+    void selectsInResponseOrderAndKeepsNulls() {
+        List<?> selected = BookFields.select(List.of(BOOK), Set.of("thumbnail", "title", "id", "pageCount"));
+
+        assertThat(selected).hasSize(1);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> values = (Map<String, Object>) selected.get(0);
+        assertThat(values).containsExactly(
+                entry("id", 1L),
+                entry("title", "Kar"),
+                entry("pageCount", 426),
+                entry("thumbnail", null));
+    }
+}
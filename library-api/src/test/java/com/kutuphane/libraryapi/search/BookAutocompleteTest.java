@@ -0,0 +1,141 @@
+package com.kutuphane.libraryapi.search;
+
+import com.kutuphane.libraryapi.event.BookChangedEvent;
+import com.kutuphane.libraryapi.event.CollectionChangedEvent;
+import com.kutuphane.libraryapi.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class BookAutocompleteTest {
+
+    private BookAutocomplete autocomplete;
+
+    @BeforeEach
+    void setUp() {
+        autocomplete = new BookAutocomplete(mock(DataSource.class), mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void isNotReadyBeforeRebuild() {
+        add(1L, "Kuyucaklı Yusuf", null);
+
+        assertThat(autocomplete.isReady()).isFalse();
+        assertThat(ids("kuyucak")).containsExactly(1L);
+    }
+
+    @Test
+    void findsTitleWordAndAuthorPrefixes() {
+        add(1L, "Kuyucaklı Yusuf", "Sabahattin Ali");
+        add(2L, "İçimizdeki Şeytan", "Sabahattin Ali");
+
+        assertThat(ids("kuyucak")).containsExactly(1L);
+        assertThat(ids("YUSUF")).containsExactly(1L);
+        assertThat(ids("seyt")).containsExactly(2L);
+        assertThat(ids("ali")).containsExactly(1L, 2L);
+        assertThat(ids("sabahattin a")).containsExactly(1L, 2L);
+        assertThat(ids("ku")).isEmpty();
+        assertThat(ids("kuyruk")).isEmpty();
+    }
+
+    @Test
+    void keepsMostOwnedBooksOnTop() {
+        for (long id = 1; id <= 12; id++) {
+            add(id, String.format("Roman %02d", id), null);
+            own(id, (int) id);
+        }
+
+        assertThat(ids("roman", 20)).hasSize(BookAutocomplete.TOP_K)
+                .containsExactly(12L, 11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L);
+        assertThat(ids("roman 0", 3)).containsExactly(9L, 8L, 7L);
+
+        own(1L, 20);
+        assertThat(ids("roman", 3)).containsExactly(1L, 12L, 11L);
+        assertThat(ids("roman 0", 2)).containsExactly(1L, 9L);
+        assertThat(autocomplete.suggest("roman", 1).get(0).owners()).isEqualTo(21);
+
+        disown(12L, 12);
+        assertThat(ids("roman", 3)).containsExactly(1L, 11L, 10L);
+    }
+
+    @Test
+    void removesBooksAndMergesEmptyNodes() {
+        add(1L, "Kuyucaklı Yusuf", null);
+        add(2L, "Kuyucak Hikayeleri", null);
+        add(3L, "Kuyruklu Yıldız", null);
+        assertThat(ids("kuy")).containsExactly(1L, 2L, 3L);
+        assertThat(ids("kuyucak")).containsExactly(1L, 2L);
+
+        delete(2L);
+        assertThat(ids("kuyucak")).containsExactly(1L);
+        assertThat(ids("kuyucakli")).containsExactly(1L);
+        assertThat(ids("kuyucak h")).isEmpty();
+        assertThat(ids("hikaye")).isEmpty();
+
+        delete(1L);
+        assertThat(ids("kuyu")).isEmpty();
+        assertThat(ids("kuy")).containsExactly(3L);
+        assertThat(autocomplete.size()).isEqualTo(1);
+
+        add(2L, "Kuyucak Hikayeleri", null);
+        assertThat(ids("kuy")).containsExactly(2L, 3L);
+        assertThat(ids("kuyucak")).containsExactly(2L);
+    }
+
+    @Test
+    void updateReplacesKeysAndKeepsOwners() {
+        add(1L, "Tutunamayanlar", "Oğuz Atay");
+        own(1L, 3);
+
+        autocomplete.onBookChanged(BookChangedEvent.updated(book(1L, "Tehlikeli Oyunlar", "Oğuz Atay")));
+
+        assertThat(ids("tutun")).isEmpty();
+        List<BookAutocomplete.Hit> hits = autocomplete.suggest("tehlike", 5);
+        assertThat(hits).hasSize(1);
+        assertThat(hits.get(0).title()).isEqualTo("Tehlikeli Oyunlar");
+        assertThat(hits.get(0).owners()).isEqualTo(3);
+        assertThat(ids("atay")).containsExactly(1L);
+    }
+
+    private void add(long id, String title, String author) {
+        autocomplete.onBookChanged(BookChangedEvent.created(book(id, title, author)));
+    }
+
+    private void delete(long id) {
+        autocomplete.onBookChanged(BookChangedEvent.deleted(book(id, null, null)));
+    }
+
+    private void own(long bookId, int times) {
+        for (int i = 0; i < times; i++) {
+            autocomplete.onCollectionChanged(CollectionChangedEvent.added((long) i, bookId));
+        }
+    }
+
+    private void disown(long bookId, int times) {
+        for (int i = 0; i < times; i++) {
+            autocomplete.onCollectionChanged(CollectionChangedEvent.removed((long) i, bookId));
+        }
+    }
+
+    private List<Long> ids(String query) {
+        return ids(query, 10);
+    }
+
+    private List<Long> ids(String query, int limit) {
+        return autocomplete.suggest(query, limit).stream().map(BookAutocomplete.Hit::bookId).toList();
+    }
+
+    private static Book book(long id, String title, String author) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        return book;
+    }
+}
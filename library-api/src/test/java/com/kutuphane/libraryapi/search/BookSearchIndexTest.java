@@ -0,0 +1,71 @@
+package com.kutuphane.libraryapi.search;
+
+import com.kutuphane.libraryapi.event.BookChangedEvent;
+import com.kutuphane.libraryapi.model.Book;
+import com.kutuphane.libraryapi.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex(mock(BookRepository.class));
+        index.onBookChanged(BookChangedEvent.created(book(1L, "Eski İstanbul", "Ahmet Rasim", "978-975-08-0001-1")));
+        index.onBookChanged(BookChangedEvent.created(book(2L, "İstanbul", "Orhan Pamuk", "978-975-08-0002-8")));
+        index.onBookChanged(BookChangedEvent.created(book(3L, "İstanbul Hatırası", "Ahmet Ümit", "978-975-08-0003-5")));
+        index.onBookChanged(BookChangedEvent.created(book(4L, "Konstantinopolistanbul", "Anonim", null)));
+        index.onBookChanged(BookChangedEvent.created(book(5L, "Ankara", "Yakup Kadri", "978-975-08-0005-9")));
+    }
+
+    @Test
+    void ranksExactThenPrefixThenWordThenSubstring() {
+        assertThat(index.search(BookSearchIndex.Field.TITLE, "istanbul", 10)).containsExactly(2L, 3L, 1L, 4L);
+        assertThat(index.search(BookSearchIndex.Field.TITLE, "ISTANBUL", 2)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void matchesAcrossFields() {
+        // Aynı eşleşme türünde kısa alan önce gelir
+        assertThat(index.search(BookSearchIndex.Field.AUTHOR, "ahmet", 10)).containsExactly(3L, 1L);
+        assertThat(index.search(BookSearchIndex.Field.ISBN, "9789750800035", 10)).containsExactly(3L);
+        assertThat(index.search(BookSearchIndex.Field.ISBN, "0800", 10)).containsExactly(1L, 2L, 3L, 5L);
+    }
+
+    @Test
+    void scansShortQueries() {
+        assertThat(index.search(BookSearchIndex.Field.TITLE, "an", 3)).containsExactly(5L, 2L, 1L);
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        index.onBookChanged(BookChangedEvent.updated(book(2L, "Kar", "Orhan Pamuk", null)));
+        assertThat(index.search(BookSearchIndex.Field.TITLE, "istanbul", 10)).containsExactly(3L, 1L, 4L);
+        assertThat(index.search(BookSearchIndex.Field.TITLE, "kar", 10)).containsExactly(2L, 5L);
+
+        index.onBookChanged(BookChangedEvent.deleted(book(3L, null, null, null)));
+        assertThat(index.search(BookSearchIndex.Field.TITLE, "istanbul", 10)).containsExactly(1L, 4L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void returnsNothingForEmptyQueryOrLimit() {
+        assertThat(index.search(BookSearchIndex.Field.TITLE, "  ", 10)).isEmpty();
+        assertThat(index.search(BookSearchIndex.Field.TITLE, "istanbul", 0)).isEmpty();
+        assertThat(index.search(BookSearchIndex.Field.TITLE, "paris", 10)).isEmpty();
+    }
+
+    private static Book book(Long id, String title, String author, String isbn) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setIsbn(isbn);
+        return book;
+    }
+}
@@ -0,0 +1,35 @@
+package com.kutuphane.libraryapi.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextNormalizerTest {
+
+    @Test
+    void foldsTurkishLettersAndAccents() {
+        assertThat(TextNormalizer.normalize("İSTANBUL Çağı")).isEqualTo("istanbul cagi");
+        assertThat(TextNormalizer.normalize("Işık ve Gölge")).isEqualTo("isik ve golge");
+        assertThat(TextNormalizer.normalize("Éducation Sentimentale")).isEqualTo("education sentimentale");
+    }
+
+    @Test
+    void collapsesPunctuationIntoSingleSpaces() {
+        assertThat(TextNormalizer.normalize("  --Suç ve   Ceza!-- ")).isEqualTo("suc ve ceza");
+        assertThat(TextNormalizer.normalize("Kafka'nın Dönüşüm'ü")).isEqualTo("kafka nin donusum u");
+    }
+
+    @Test
+    void returnsEmptyForMissingText() {
+        assertThat(TextNormalizer.normalize(null)).isEmpty();
+        assertThat(TextNormalizer.normalize("")).isEmpty();
+        assertThat(TextNormalizer.normalize("?!")).isEmpty();
+    }
+
+    @Test
+    void keepsOnlyDigitsAndXInIsbn() {
+        assertThat(TextNormalizer.normalizeIsbn("978-0-306-40615-7")).isEqualTo("9780306406157");
+        assertThat(TextNormalizer.normalizeIsbn("0 8044 2957 X")).isEqualTo("080442957x");
+        assertThat(TextNormalizer.normalizeIsbn(null)).isEmpty();
+    }
+}
@@ -0,0 +1,90 @@
+package com.kutuphane.libraryapi.security;
+
+import com.kutuphane.libraryapi.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionTokenServiceTest {
+
+    private static final String SECRET = "test-secret-that-is-at-least-32-bytes";
+
+    private final SessionTokenService service = new SessionTokenService("stateless", SECRET, Duration.ofMinutes(30));
+
+    @Test
+    void issuedTokenVerifies() {
+        String token = service.issue(user(7L, "ayse|admin", User.Role.ADMIN));
+
+        SessionTokenService.TokenClaims claims = service.verify(token).orElseThrow();
+
+        assertThat(claims.userId()).isEqualTo(7L);
+        assertThat(claims.username()).isEqualTo("ayse|admin");
+        assertThat(claims.role()).isEqualTo("ADMIN");
+        assertThat(claims.expiresAt()).isBetween(Instant.now().plusSeconds(29 * 60).getEpochSecond(),
+                Instant.now().plusSeconds(30 * 60).getEpochSecond());
+    }
+
+    @Test
+    void rejectsTamperedPayloadAndSignature() {
+        String token = service.issue(user(7L, "ayse", User.Role.USER));
+        String other = service.issue(user(8L, "mehmet", User.Role.ADMIN));
+        int dot = token.indexOf('.');
+
+        // Başka token'ın içeriği bu imzayla geçmemeli
+        assertThat(service.verify(other.substring(0, other.indexOf('.')) + token.substring(dot))).isEmpty();
+        assertThat(service.verify(token.substring(0, dot) + ".AAAA")).isEmpty();
+        assertThat(service.verify(token.substring(0, dot))).isEmpty();
+        assertThat(service.verify(token.substring(0, dot) + ".")).isEmpty();
+        assertThat(service.verify("!!!." + token.substring(dot + 1))).isEmpty();
+        assertThat(service.verify(null)).isEmpty();
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherSecret() {
+        SessionTokenService other = new SessionTokenService("stateless", SECRET + "-other", Duration.ofMinutes(30));
+
+        assertThat(service.verify(other.issue(user(7L, "ayse", User.Role.USER)))).isEmpty();
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        SessionTokenService expired = new SessionTokenService("stateless", SECRET, Duration.ZERO);
+
+        assertThat(expired.verify(expired.issue(user(7L, "ayse", User.Role.USER)))).isEmpty();
+    }
+
+    @Test
+    void rejectsRevokedTokens() {
+        String token = service.issue(user(7L, "ayse", User.Role.USER));
+        String other = service.issue(user(7L, "ayse", User.Role.USER));
+
+        service.revoke(token);
+
+        assertThat(service.verify(token)).isEmpty();
+        assertThat(service.verify(other)).isPresent();
+    }
+
+    @Test
+    void statelessModeRequiresStrongSecret() {
+        assertThatThrownBy(() -> new SessionTokenService("stateless", "", Duration.ofMinutes(30)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new SessionTokenService("stateless", null, Duration.ofMinutes(30)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new SessionTokenService("STATELESS", "too-short", Duration.ofMinutes(30)))
+                .isInstanceOf(IllegalStateException.class);
+
+        SessionTokenService stateful = new SessionTokenService("stateful", "", Duration.ofMinutes(30));
+        assertThat(stateful.verify(stateful.issue(user(7L, "ayse", User.Role.USER)))).isPresent();
+    }
+
+    private static User user(Long id, String username, User.Role role) {
+        User user = new User(username, username + "@example.com", "secret");
+        user.setId(id);
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,82 @@
+package com.kutuphane.libraryapi.service;
+
+import com.kutuphane.libraryapi.dto.BookSummary;
+import com.kutuphane.libraryapi.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookCursorTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 17, 13, 45, 12, 123_456_000);
+
+    @Test
+    void roundTripsEverySort() {
+        for (BookCursor.Sort sort : BookCursor.Sort.values()) {
+            String token = BookCursor.after(sort, summary(42L, UPDATED_AT)).encode();
+
+            BookCursor decoded = BookCursor.decode(token, sort);
+
+            assertThat(decoded.getSort()).isEqualTo(sort);
+            assertThat(decoded.getId()).isEqualTo(42L);
+            assertThat(decoded.getUpdatedAt()).isEqualTo(UPDATED_AT);
+        }
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = BookCursor.after(BookCursor.Sort.UPDATED_AT_DESC, summary(Long.MAX_VALUE, UPDATED_AT)).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsCursorOfAnotherSort() {
+        String token = BookCursor.after(BookCursor.Sort.ID_ASC, summary(42L, UPDATED_AT)).encode();
+
+        assertThatThrownBy(() -> BookCursor.decode(token, BookCursor.Sort.ID_DESC))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        assertInvalid("not a cursor!");
+        assertInvalid(raw("v1|id|42"));
+        assertInvalid(raw("v2|id|42|"));
+        assertInvalid(raw("v1|id|abc|"));
+        assertInvalid(raw("v1|id||"));
+        assertInvalid(raw("v1|name|42|"));
+        // Zaman damgasız imleç updatedAt sıralamasında kullanılamaz
+        assertInvalid(raw("v1|updatedAt|42|"), BookCursor.Sort.UPDATED_AT_ASC);
+        assertInvalid(raw("v1|updatedAt|42|yesterday"), BookCursor.Sort.UPDATED_AT_ASC);
+    }
+
+    @Test
+    void parsesSortKeys() {
+        assertThat(BookCursor.Sort.fromKey(null)).isEqualTo(BookCursor.Sort.ID_ASC);
+        assertThat(BookCursor.Sort.fromKey(" -updatedAt ")).isEqualTo(BookCursor.Sort.UPDATED_AT_DESC);
+        assertThatThrownBy(() -> BookCursor.Sort.fromKey("title")).isInstanceOf(BadRequestException.class);
+    }
+
+    private static void assertInvalid(String token) {
+        assertInvalid(token, BookCursor.Sort.ID_ASC);
+    }
+
+    private static void assertInvalid(String token, BookCursor.Sort sort) {
+        assertThatThrownBy(() -> BookCursor.decode(token, sort)).isInstanceOf(BadRequestException.class);
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BookSummary summary(Long id, LocalDateTime updatedAt) {
+        return new BookSummary(id, "Title", "Author", "9780000000000", null, null, null, null, null, null, null,
+                updatedAt, updatedAt);
+    }
+}
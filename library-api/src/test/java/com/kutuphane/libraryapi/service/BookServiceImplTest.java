@@ -0,0 +1,135 @@
+package com.kutuphane.libraryapi.service;
+
+import com.kutuphane.libraryapi.dto.BookLookupRequest;
+import com.kutuphane.libraryapi.dto.BookLookupResult;
+import com.kutuphane.libraryapi.dto.BookSummary;
+import com.kutuphane.libraryapi.exception.BadRequestException;
+import com.kutuphane.libraryapi.repository.BookBatchRepository;
+import com.kutuphane.libraryapi.repository.BookRepository;
+import com.kutuphane.libraryapi.search.BookSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookServiceImplTest {
+
+    private BookRepository bookRepository;
+    private BookSearchIndex searchIndex;
+    private BookServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        searchIndex = mock(BookSearchIndex.class);
+        service = new BookServiceImpl(bookRepository, mock(BookBatchRepository.class), searchIndex,
+                mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void lookupKeepsRequestOrderDuplicatesAndMisses() {
+        // Veritabanı sonuçları istekten farklı sırada döner
+        when(bookRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<BookSummary> rows = new ArrayList<>();
+            for (Long id : (Collection<Long>) invocation.getArgument(0)) {
+                if (id != 404L) {
+                    rows.add(0, summary(id, "isbn-" + id, "g-" + id));
+                }
+            }
+            return rows;
+        });
+        BookLookupRequest request = new BookLookupRequest();
+        request.setIds(Arrays.asList(3L, 1L, 404L, 3L, null, 2L));
+
+        BookLookupResult result = service.lookupBooks(request);
+
+        assertThat(result.ids()).extracting(BookLookupResult.Item::key).containsExactly(3L, 1L, 404L, 3L, null, 2L);
+        assertThat(result.ids()).extracting(item -> item.book() == null ? null : item.book().id())
+                .containsExactly(3L, 1L, null, 3L, null, 2L);
+        assertThat(result.isbns()).isNull();
+        assertThat(result.googleBooksIds()).isNull();
+        verify(bookRepository).findSummariesByIdIn(List.of(3L, 1L, 404L, 2L));
+    }
+
+    @Test
+    void lookupTrimsKeysAndPrefersSmallestIdForSharedIsbn() {
+        when(bookRepository.findSummariesByIsbnIn(anyCollection())).thenReturn(List.of(
+                summary(5L, "9780000000001", null),
+                summary(9L, "9780000000001", null),
+                summary(7L, "9780000000002", null)));
+        BookLookupRequest request = new BookLookupRequest();
+        request.setIsbns(Arrays.asList(" 9780000000002 ", "9780000000001", "  ", "9780000000003"));
+
+        BookLookupResult result = service.lookupBooks(request);
+
+        assertThat(result.isbns()).extracting(BookLookupResult.Item::key)
+                .containsExactly(" 9780000000002 ", "9780000000001", "  ", "9780000000003");
+        assertThat(result.isbns()).extracting(item -> item.book() == null ? null : item.book().id())
+                .containsExactly(7L, 5L, null, null);
+        verify(bookRepository).findSummariesByIsbnIn(List.of("9780000000002", "9780000000001", "9780000000003"));
+    }
+
+    @Test
+    void lookupQueriesInChunks() {
+        when(bookRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of());
+        BookLookupRequest request = new BookLookupRequest();
+        request.setIds(LongStream.rangeClosed(1, BookServiceImpl.LOOKUP_CHUNK_SIZE * 2L + 1).boxed().toList());
+
+        BookLookupResult result = service.lookupBooks(request);
+
+        assertThat(result.ids()).hasSize(BookServiceImpl.LOOKUP_CHUNK_SIZE * 2 + 1).noneMatch(BookLookupResult.Item::found);
+        verify(bookRepository, times(3)).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    void lookupRejectsEmptyAndOversizedRequests() {
+        assertThatThrownBy(() -> service.lookupBooks(new BookLookupRequest())).isInstanceOf(BadRequestException.class);
+
+        BookLookupRequest request = new BookLookupRequest();
+        request.setIds(LongStream.rangeClosed(1, BookServiceImpl.MAX_LOOKUP_SIZE).boxed().toList());
+        request.setIsbns(List.of("9780000000001"));
+        assertThatThrownBy(() -> service.lookupBooks(request)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void titleSearchKeepsIndexOrder() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search(eq(BookSearchIndex.Field.TITLE), eq("istanbul"), anyInt())).thenReturn(List.of(8L, 2L, 5L));
+        when(bookRepository.findSummariesByIdIn(any())).thenReturn(List.of(
+                summary(2L, null, null), summary(5L, null, null), summary(8L, null, null)));
+
+        assertThat(service.findBooksByTitle("istanbul")).extracting(BookSummary::id).containsExactly(8L, 2L, 5L);
+    }
+
+    @Test
+    void titleSearchFallsBackToDatabaseUntilIndexIsReady() {
+        when(searchIndex.isReady()).thenReturn(false);
+        when(bookRepository.findSummariesByTitleContainingIgnoreCase("istanbul")).thenReturn(List.of(summary(1L, null, null)));
+
+        assertThat(service.findBooksByTitle("istanbul")).extracting(BookSummary::id).containsExactly(1L);
+        verify(searchIndex, never()).search(any(), any(), anyInt());
+    }
+
+    private static BookSummary summary(Long id, String isbn, String googleBooksId) {
+        return new BookSummary(id, "Kitap " + id, "Yazar", isbn, null, null, null, null, googleBooksId, null, null,
+                null, null);
+    }
+}
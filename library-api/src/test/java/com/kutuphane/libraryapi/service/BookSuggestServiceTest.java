@@ -0,0 +1,69 @@
+package com.kutuphane.libraryapi.service;
+
+import com.kutuphane.libraryapi.search.BookAutocomplete;
+import com.kutuphane.libraryapi.service.GoogleBooksService.BookSuggestion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookSuggestServiceTest {
+
+    private BookAutocomplete autocomplete;
+    private GoogleBooksService googleBooksService;
+    private BookSuggestService service;
+
+    @BeforeEach
+    void setUp() {
+        autocomplete = mock(BookAutocomplete.class);
+        googleBooksService = mock(GoogleBooksService.class);
+        service = new BookSuggestService(autocomplete, googleBooksService, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void goesUpstreamWithoutTouchingTrieUntilReady() {
+        when(autocomplete.isReady()).thenReturn(false);
+        when(googleBooksService.searchBooksAsync("kuyucak", 5)).thenReturn(Mono.just(List.of(remote("g-1"))));
+
+        assertThat(service.suggest("kuyucak", 5).block()).extracting(BookSuggestion::getGoogleId).containsExactly("g-1");
+        verify(autocomplete, never()).suggest(anyString(), anyInt());
+    }
+
+    @Test
+    void answersLocallyWhenTrieFillsTheLimit() {
+        when(autocomplete.isReady()).thenReturn(true);
+        when(autocomplete.suggest("kuyucak", 1)).thenReturn(List.of(new BookAutocomplete.Hit(
+                7L, "Kuyucaklı Yusuf", "Sabahattin Ali", null, null, "g-7", null, null, null, 3)));
+
+        assertThat(service.suggest("kuyucak", 1).block()).extracting(BookSuggestion::getBookId).containsExactly(7L);
+        verify(googleBooksService, never()).searchBooksAsync(anyString(), anyInt());
+    }
+
+    @Test
+    void fillsRemainingSlotsFromUpstreamWithoutDuplicates() {
+        when(autocomplete.isReady()).thenReturn(true);
+        when(autocomplete.suggest("kuyucak", 3)).thenReturn(List.of(new BookAutocomplete.Hit(
+                7L, "Kuyucaklı Yusuf", "Sabahattin Ali", null, null, "g-7", null, null, null, 3)));
+        when(googleBooksService.searchBooksAsync("kuyucak", 3))
+                .thenReturn(Mono.just(List.of(remote("g-7"), remote("g-8"), remote("g-9"))));
+
+        assertThat(service.suggest("kuyucak", 3).block()).extracting(BookSuggestion::getGoogleId)
+                .containsExactly("g-7", "g-8", "g-9");
+    }
+
+    private static BookSuggestion remote(String googleId) {
+        BookSuggestion suggestion = new BookSuggestion();
+        suggestion.setGoogleId(googleId);
+        return suggestion;
+    }
+}
@@ -0,0 +1,97 @@
+package com.kutuphane.libraryapi.service;
+
+import com.kutuphane.libraryapi.event.BookChangedEvent;
+import com.kutuphane.libraryapi.model.Book;
+import com.kutuphane.libraryapi.search.OwnershipIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogStatsServiceTest {
+
+    private CatalogStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        OwnershipIndex ownershipIndex = mock(OwnershipIndex.class);
+        when(ownershipIndex.isReady()).thenReturn(true);
+        service = new CatalogStatsService(mock(DataSource.class), mock(PlatformTransactionManager.class), ownershipIndex);
+    }
+
+    @Test
+    void keepsProlificAuthorsOrderedAcrossWrites() {
+        long id = 1;
+        for (int i = 0; i < 3; i++) {
+            created(id++, "Orhan Pamuk", 400);
+        }
+        created(id++, "Oğuz Atay", 700);
+        created(id++, "Oğuz Atay", 300);
+        created(id++, "Sait Faik", null);
+
+        assertThat(prolificAuthors()).containsExactly("Orhan Pamuk", "Oğuz Atay");
+        assertThat(service.getStats()).containsEntry("totalAuthors", 3);
+
+        created(id++, "Sait Faik", 120);
+        created(id++, "Sait Faik", 150);
+        created(id, "Sait Faik", 180);
+        assertThat(prolificAuthors()).containsExactly("Sait Faik", "Orhan Pamuk", "Oğuz Atay");
+
+        deleted(1L);
+        deleted(2L);
+        assertThat(prolificAuthors()).containsExactly("Sait Faik", "Oğuz Atay");
+
+        updated(4L, "Sait Faik", 700);
+        assertThat(prolificAuthors()).containsExactly("Sait Faik");
+        assertThat(service.getStats()).containsEntry("totalBooks", 7L);
+    }
+
+    @Test
+    void limitsProlificAuthors() {
+        long id = 1;
+        for (int author = 0; author < 25; author++) {
+            for (int book = 0; book <= author % 3 + 1; book++) {
+                created(id++, String.format("Yazar %02d", author), 100);
+            }
+        }
+
+        List<String> authors = prolificAuthors();
+        assertThat(authors).hasSize(20);
+        // Eşit kitap sayısında ada göre
+        assertThat(authors.subList(0, 3)).containsExactly("Yazar 02", "Yazar 05", "Yazar 08");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> prolificAuthors() {
+        List<Map<String, Object>> authors = (List<Map<String, Object>>) service.getStats().get("prolificAuthors");
+        return authors.stream().map(author -> (String) author.get("author")).toList();
+    }
+
+    private void created(long id, String author, Integer pages) {
+        service.onBookChanged(BookChangedEvent.created(book(id, author, pages)));
+    }
+
+    private void updated(long id, String author, Integer pages) {
+        service.onBookChanged(BookChangedEvent.updated(book(id, author, pages)));
+    }
+
+    private void deleted(long id) {
+        service.onBookChanged(BookChangedEvent.deleted(book(id, null, null)));
+    }
+
+    private static Book book(long id, String author, Integer pages) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Kitap " + id);
+        book.setAuthor(author);
+        book.setPageCount(pages);
+        return book;
+    }
+}
@@ -0,0 +1,127 @@
+package com.kutuphane.libraryapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoogleBooksGuardTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(100);
+
+    private GoogleBooksGuard guard;
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        // Pencere 4 çağrı, en az 4 çağrı, %50 hata eşiği, yarı açıkta 2 deneme; hedging kapalı
+        guard = new GoogleBooksGuard(new SimpleMeterRegistry(), 2, 0.5, 4, 4, OPEN_DURATION, 2,
+                Duration.ofMillis(500), Duration.ofSeconds(5), 2.0, false, Duration.ofMillis(150));
+    }
+
+    @Test
+    void opensAfterFailureRateIsReached() {
+        succeed();
+        succeed();
+        fail();
+        assertThat(guard.getState()).isEqualTo(GoogleBooksGuard.State.CLOSED);
+
+        fail();
+        assertThat(guard.getState()).isEqualTo(GoogleBooksGuard.State.OPEN);
+
+        int before = upstreamCalls.get();
+        assertRejected("circuit_open");
+        assertThat(upstreamCalls.get()).isEqualTo(before);
+    }
+
+    @Test
+    void closesAfterSuccessfulProbes() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        assertThat(guard.getState()).isEqualTo(GoogleBooksGuard.State.HALF_OPEN);
+
+        succeed();
+        assertThat(guard.getState()).isEqualTo(GoogleBooksGuard.State.HALF_OPEN);
+        succeed();
+        assertThat(guard.getState()).isEqualTo(GoogleBooksGuard.State.CLOSED);
+    }
+
+    @Test
+    void reopensWhenProbeFails() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+
+        fail();
+        assertThat(guard.getState()).isEqualTo(GoogleBooksGuard.State.OPEN);
+        assertRejected("circuit_open");
+    }
+
+    @Test
+    void clientErrorsDoNotCountAsFailures() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.execute(() -> Mono.error(
+                    WebClientResponseException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, new byte[0], null, null)))
+                    .block()).isInstanceOf(WebClientResponseException.class);
+        }
+        assertThat(guard.getState()).isEqualTo(GoogleBooksGuard.State.CLOSED);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.execute(() -> Mono.error(
+                    WebClientResponseException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", HttpHeaders.EMPTY, new byte[0], null, null)))
+                    .block()).isInstanceOf(WebClientResponseException.class);
+        }
+        assertThat(guard.getState()).isEqualTo(GoogleBooksGuard.State.OPEN);
+    }
+
+    @Test
+    void bulkheadRejectsBeyondMaxConcurrent() {
+        Mono<String> first = guard.execute(() -> Mono.<String>never());
+        Mono<String> second = guard.execute(() -> Mono.<String>never());
+        var firstSubscription = first.subscribe();
+        var secondSubscription = second.subscribe();
+        try {
+            assertRejected("bulkhead");
+        } finally {
+            firstSubscription.dispose();
+            secondSubscription.dispose();
+        }
+        assertThat(guard.getStats()).containsEntry("inFlight", 0);
+        succeed();
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertThat(guard.getState()).isEqualTo(GoogleBooksGuard.State.OPEN);
+    }
+
+    private void succeed() {
+        assertThat(guard.execute(() -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just("ok");
+        }).block()).isEqualTo("ok");
+    }
+
+    private void fail() {
+        assertThatThrownBy(() -> guard.execute(() -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.<String>error(new IllegalStateException("upstream down"));
+        }).block()).isInstanceOf(IllegalStateException.class);
+    }
+
+    private void assertRejected(String reason) {
+        assertThatThrownBy(() -> guard.execute(() -> Mono.just("ok")).block())
+                .isInstanceOf(GoogleBooksGuard.UpstreamRejectedException.class)
+                .hasMessage("Google Books call rejected: " + reason);
+    }
+}
@@ -0,0 +1,147 @@
+#!/usr/bin/env python3
+"""Local stand-in for https://www.googleapis.com/books/v1/volumes.
+
+Replays the recorded volumes fixture with configurable latency and error rate.
+Each query gets its own deterministic slice of the fixture with query-specific
+volume ids, so different queries produce different books (add-to-collection then
+creates new catalog rows) while the same query always returns the same answer.
+
+Point the API at it with --google.books.api.url=http://127.0.0.1:<port>/books/v1/volumes
+
+Cover links in the answers point back at this stub (/covers/<volume id>.png, a flat
+128x192 PNG), so the cover proxy can run with --library.covers.allowed-hosts=127.0.0.1:<port>.
+"""
+import argparse
+import copy
+import hashlib
+import json
+import random
+import struct
+import sys
+import time
+import zlib
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+from pathlib import Path
+from urllib.parse import parse_qs, urlparse
+
+DEFAULT_FIXTURE = (Path(__file__).resolve().parent.parent
+                   / "library-api/src/jmh/resources/fixtures/google-books-volumes.json")
+
+
+def load_items(path):
+    with open(path, encoding="utf-8") as f:
+        return json.load(f)["items"]
+
+
+def cover_png(name, width=128, height=192):
+    """Flat-colour PNG whose colour is derived from the name."""
+    r, g, b = hashlib.sha1(name.encode("utf-8")).digest()[:3]
+    row = b"\x00" + bytes((r, g, b)) * width
+    raw = zlib.compress(row * height, 6)
+
+    def chunk(kind, data):
+        body = kind + data
+        return struct.pack(">I", len(data)) + body + struct.pack(">I", zlib.crc32(body) & 0xFFFFFFFF)
+
+    header = struct.pack(">IIBBBBB", width, height, 8, 2, 0, 0, 0)
+    return b"\x89PNG\r\n\x1a\n" + chunk(b"IHDR", header) + chunk(b"IDAT", raw) + chunk(b"IEND", b"")
+
+
+def build_response(items, query, max_results, cover_base):
+    digest = hashlib.sha1(query.encode("utf-8")).hexdigest()
+    rng = random.Random(digest)
+    count = min(max_results, len(items))
+    picked = rng.sample(items, count)
+    out = []
+    for n, item in enumerate(picked):
+        volume = copy.deepcopy(item)
+        volume_id = "st" + digest[:10] + "%02d" % n
+        volume["id"] = volume_id
+        info = volume["volumeInfo"]
+        info["title"] = "%s %s" % (info["title"], query.title())
+        cover = "%s/covers/%s.png" % (cover_base, volume_id)
+        info["imageLinks"] = {"smallThumbnail": cover, "thumbnail": cover}
+        for identifier in info.get("industryIdentifiers", []):
+            if identifier["type"] == "ISBN_13":
+                identifier["identifier"] = "979" + str(int(digest[:12], 16))[-8:] + "%02d" % n
+            elif identifier["type"] == "ISBN_10":
+                identifier["identifier"] = str(int(digest[12:24], 16))[-8:] + "%02d" % n
+        out.append(volume)
+    return {"kind": "books#volumes", "totalItems": 1000 + len(query), "items": out}
+
+
+class StubHandler(BaseHTTPRequestHandler):
+    protocol_version = "HTTP/1.1"
+    server_version = "GoogleBooksStub/1.0"
+    # Headers and body are separate writes; without this every response waits for a delayed ACK
+    disable_nagle_algorithm = True
+
+    def do_GET(self):
+        url = urlparse(self.path)
+        if url.path.startswith("/covers/") and url.path.endswith(".png"):
+            self.send_png(cover_png(url.path[len("/covers/"):-len(".png")]))
+            return
+        if url.path != "/books/v1/volumes":
+            self.reply(404, {"error": {"code": 404, "message": "Not found"}})
+            return
+        # http.server decodes the request line as latin-1; raw UTF-8 bytes are restored first
+        params = parse_qs(url.query.encode("latin-1").decode("utf-8", "replace"))
+        query = params.get("q", [""])[0].strip().lower()
+        max_results = int(params.get("maxResults", ["10"])[0])
+
+        cfg = self.server.config
+        delay = max(0.0, random.gauss(cfg.latency_ms, cfg.jitter_ms)) / 1000.0
+        time.sleep(delay)
+        if random.random() < cfg.error_rate:
+            self.reply(503, {"error": {"code": 503, "message": "Backend Error"}})
+            return
+        if not query:
+            self.reply(400, {"error": {"code": 400, "message": "Missing query."}})
+            return
+        cover_base = "http://127.0.0.1:%d" % cfg.port
+        self.reply(200, build_response(self.server.items, query, max(1, min(max_results, 40)), cover_base))
+
+    def reply(self, status, body):
+        payload = json.dumps(body, ensure_ascii=False).encode("utf-8")
+        self.send_response(status)
+        self.send_header("Content-Type", "application/json; charset=UTF-8")
+        self.send_header("Content-Length", str(len(payload)))
+        self.end_headers()
+        self.wfile.write(payload)
+
+    def send_png(self, payload):
+        self.send_response(200)
+        self.send_header("Content-Type", "image/png")
+        self.send_header("Content-Length", str(len(payload)))
+        self.end_headers()
+        self.wfile.write(payload)
+
+    def log_message(self, fmt, *args):
+        if self.server.config.verbose:
+            sys.stderr.write("stub: " + fmt % args + "\n")
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--port", type=int, default=8089)
+    parser.add_argument("--fixture", default=str(DEFAULT_FIXTURE))
+    parser.add_argument("--latency-ms", type=float, default=120.0, help="mean upstream latency")
+    parser.add_argument("--jitter-ms", type=float, default=40.0, help="latency standard deviation")
+    parser.add_argument("--error-rate", type=float, default=0.0, help="fraction of requests answered with 503")
+    parser.add_argument("--verbose", action="store_true")
+    config = parser.parse_args()
+
+    server = ThreadingHTTPServer(("127.0.0.1", config.port), StubHandler)
+    server.daemon_threads = True
+    server.config = config
+    server.items = load_items(config.fixture)
+    print("Google Books stub on http://127.0.0.1:%d/books/v1/volumes (%d recorded volumes, %.0f±%.0f ms)"
+          % (config.port, len(server.items), config.latency_ms, config.jitter_ms), flush=True)
+    try:
+        server.serve_forever()
+    except KeyboardInterrupt:
+        pass
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,340 @@
+#!/usr/bin/env python3
+"""Mixed-traffic load generator for the Library API (standard library only).
+
+Phases:
+  1. seed    - fill the catalog to --books synthetic books through POST /api/books/bulk
+  2. users   - register and sign in --users accounts (stateless token or session cookie)
+  3. warmup  - run the traffic mix for --warmup seconds, results discarded
+  4. measure - run the traffic mix for --duration seconds with --concurrency workers
+
+Every worker owns one keep-alive connection and picks operations from the weighted
+--mix. The report lists throughput, latency percentiles and error rate per endpoint;
+--json writes the same numbers for comparison between runs.
+"""
+import argparse
+import http.client
+import json
+import random
+import socket
+import sys
+import threading
+import time
+from collections import defaultdict, deque
+from urllib.parse import quote, urlparse
+
+TITLE_WORDS = ["kayıp", "zaman", "deniz", "gece", "şehir", "sessiz", "yol", "ateş", "rüzgar", "kış",
+               "bahçe", "ayna", "yıldız", "nehir", "taş", "kırmızı", "son", "uzak", "eski", "mavi",
+               "silent", "river", "winter", "glass", "north", "garden", "empire", "shadow", "paper", "light"]
+FIRST_NAMES = ["Ahmet", "Ayşe", "Mehmet", "Zeynep", "Elif", "Can", "Deniz", "Oğuz", "Selin", "Kemal",
+               "Anna", "David", "Maria", "John", "Clara", "Victor", "Emily", "Leo", "Nora", "Paul"]
+LAST_NAMES = ["Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Arslan", "Aydın", "Öztürk", "Koç", "Kurt",
+              "Miller", "Hugo", "Brontë", "Fowler", "Knuth", "Martin", "Bloch", "Goetz", "Herbert", "Ali"]
+PUBLISHERS = ["Yapı Kredi Yayınları", "İletişim Yayınları", "Can Yayınları", "Doğan Kitap", "İş Bankası Kültür Yayınları",
+              "Penguin", "O'Reilly Media", "Addison-Wesley", "MIT Press", "Pearson Education"]
+SUGGEST_TERMS = ["roman", "tarih", "bilim", "java", "spring", "postgres", "felsefe", "şiir", "polisiye",
+                 "programming", "algorithms", "design", "history", "poetry", "mystery", "fantasy", "physics",
+                 "istanbul", "anadolu", "osmanlı", "distributed", "database", "network", "security", "cloud"]
+
+DEFAULT_MIX = "list=30,get=20,title=15,author=5,suggest=20,add=10"
+
+
+class Client:
+    """One keep-alive HTTP/1.1 connection plus auth state."""
+
+    def __init__(self, base_url, timeout):
+        url = urlparse(base_url)
+        self.host = url.hostname
+        self.port = url.port or 80
+        self.timeout = timeout
+        self.conn = None
+        self.headers = {}
+
+    def request(self, method, path, body=None):
+        payload = None
+        headers = dict(self.headers)
+        if body is not None:
+            payload = json.dumps(body).encode("utf-8")
+            headers["Content-Type"] = "application/json"
+        for attempt in (0, 1):
+            if self.conn is None:
+                self.conn = http.client.HTTPConnection(self.host, self.port, timeout=self.timeout)
+                self.conn.connect()
+                # Nagle + delayed ACK would add ~40 ms to every small request
+                self.conn.sock.setsockopt(socket.IPPROTO_TCP, socket.TCP_NODELAY, 1)
+            try:
+                self.conn.request(method, path, body=payload, headers=headers)
+                response = self.conn.getresponse()
+                data = response.read()
+                if response.getheader("Connection", "").lower() == "close":
+                    self.close()
+                return response.status, response.headers, data
+            except (http.client.RemoteDisconnected, ConnectionResetError, BrokenPipeError):
+                # Sunucu boştaki bağlantıyı kapattıysa bir kez yeniden dene
+                self.close()
+                if attempt:
+                    raise
+
+    def close(self):
+        if self.conn is not None:
+            self.conn.close()
+            self.conn = None
+
+
+class Stats:
+    def __init__(self):
+        self.lock = threading.Lock()
+        self.latencies = defaultdict(list)
+        self.errors = defaultdict(int)
+        self.statuses = defaultdict(lambda: defaultdict(int))
+
+    def record(self, name, seconds, status):
+        with self.lock:
+            self.latencies[name].append(seconds)
+            self.statuses[name][status] += 1
+            if status == "error" or status >= 500 or status in (401, 403, 429):
+                self.errors[name] += 1
+
+
+def percentile(sorted_values, p):
+    if not sorted_values:
+        return 0.0
+    k = min(len(sorted_values) - 1, max(0, int(round(p / 100.0 * len(sorted_values) + 0.5)) - 1))
+    return sorted_values[k]
+
+
+def synthetic_books(start, count, rng):
+    books = []
+    for i in range(start, start + count):
+        title = " ".join(rng.sample(TITLE_WORDS, rng.randint(2, 4))).title()
+        books.append({
+            "title": "%s %d" % (title, i),
+            "author": "%s %s" % (rng.choice(FIRST_NAMES), rng.choice(LAST_NAMES)),
+            "isbn": "978%010d" % (7000000000 + i),
+            "googleBooksId": "lt%010d" % i,
+            "publishDate": "%04d-%02d-%02d" % (rng.randint(1900, 2025), rng.randint(1, 12), rng.randint(1, 28)),
+            "pageCount": rng.randint(80, 1200),
+            "publisher": rng.choice(PUBLISHERS),
+            "language": rng.choice(["tr", "tr", "en"]),
+            "description": "Yük testi için üretilmiş kitap %d. " % i * rng.randint(2, 10),
+        })
+    return books
+
+
+def seed_catalog(client, target, rng):
+    status, _, data = client.request("GET", "/api/stats")
+    existing = json.loads(data).get("totalBooks", 0) if status == 200 else 0
+    if existing >= target:
+        print("seed: catalog already has %d books" % existing)
+        return
+    print("seed: adding %d books" % (target - existing))
+    started = time.time()
+    index = existing
+    while index < target:
+        batch = min(5000, target - index)
+        status, _, data = client.request("POST", "/api/books/bulk", synthetic_books(index, batch, rng))
+        if status != 200:
+            sys.exit("seed: bulk insert failed with %d: %s" % (status, data[:300]))
+        index += batch
+    print("seed: done in %.1f s" % (time.time() - started))
+
+
+def sample_book_ids(client, limit):
+    ids, cursor = [], None
+    while len(ids) < limit:
+        path = "/api/books?size=200" + ("&cursor=" + quote(cursor) if cursor else "")
+        status, headers, data = client.request("GET", path)
+        if status != 200:
+            break
+        ids.extend(book["id"] for book in json.loads(data))
+        cursor = headers.get("X-Next-Cursor")
+        if not cursor:
+            break
+    return ids
+
+
+def sign_in_users(base_url, count, timeout):
+    clients = []
+    for i in range(count):
+        client = Client(base_url, timeout)
+        username = "loadtest%03d" % i
+        password = "loadtest-password-%03d" % i
+        client.request("POST", "/api/auth/register",
+                       {"username": username, "email": username + "@loadtest.local", "password": password})
+        status, headers, data = client.request("POST", "/api/auth/login",
+                                               {"username": username, "password": password})
+        if status != 200:
+            sys.exit("users: login failed for %s with %d: %s" % (username, status, data[:200]))
+        token = json.loads(data).get("token")
+        if token:
+            client.headers["Authorization"] = "Bearer " + token
+        else:
+            cookies = [c.split(";", 1)[0] for c in headers.get_all("Set-Cookie") or []]
+            client.headers["Cookie"] = "; ".join(cookies)
+        clients.append(client)
+    print("users: %d signed in" % len(clients))
+    return clients
+
+
+def zipf_cum_weights(n, s=1.1):
+    # Skewed query popularity: a few hot queries, a long tail of cache misses
+    total, cumulative = 0.0, []
+    for rank in range(1, n + 1):
+        total += 1.0 / (rank ** s)
+        cumulative.append(total)
+    return cumulative
+
+
+class Worker(threading.Thread):
+    def __init__(self, wid, args, client, ops, weights, book_ids, queries, stats_ref, stop_at):
+        super().__init__(daemon=True)
+        self.rng = random.Random(args.seed * 1000 + wid)
+        self.client = client
+        self.ops = ops
+        self.weights = weights
+        self.book_ids = book_ids
+        self.queries = queries
+        self.query_weights = zipf_cum_weights(len(queries))
+        self.stats_ref = stats_ref
+        self.stop_at = stop_at
+        self.cursor = None
+        self.seen = deque(maxlen=20)
+
+    def run(self):
+        while time.time() < self.stop_at[0]:
+            op = self.rng.choices(self.ops, weights=self.weights)[0]
+            getattr(self, "op_" + op)()
+
+    def timed(self, name, method, path, body=None):
+        started = time.perf_counter()
+        try:
+            status, headers, data = self.client.request(method, path, body)
+        except Exception:
+            self.stats_ref[0].record(name, time.perf_counter() - started, "error")
+            return None, None, None
+        self.stats_ref[0].record(name, time.perf_counter() - started, status)
+        return status, headers, data
+
+    def op_list(self):
+        path = "/api/books?size=50"
+        if self.cursor and self.rng.random() < 0.7:
+            path += "&cursor=" + quote(self.cursor)
+        status, headers, _ = self.timed("GET /api/books", "GET", path)
+        self.cursor = headers.get("X-Next-Cursor") if status == 200 else None
+
+    def op_get(self):
+        if self.book_ids:
+            self.timed("GET /api/books/{id}", "GET", "/api/books/%d" % self.rng.choice(self.book_ids))
+
+    def op_title(self):
+        self.timed("GET /api/books/search/title", "GET",
+                   "/api/books/search/title?title=" + quote(self.rng.choice(TITLE_WORDS)))
+
+    def op_author(self):
+        self.timed("GET /api/books/search/author", "GET",
+                   "/api/books/search/author?author=" + quote(self.rng.choice(LAST_NAMES)))
+
+    def op_suggest(self):
+        query = self.rng.choices(self.queries, cum_weights=self.query_weights)[0]
+        status, _, data = self.timed("GET /api/books/suggest", "GET",
+                                     "/api/books/suggest?limit=5&query=" + quote(query))
+        if status == 200:
+            self.seen.extend(json.loads(data))
+
+    def op_add(self):
+        if not self.seen:
+            self.op_suggest()
+            return
+        self.timed("POST /api/books/add-to-collection", "POST", "/api/books/add-to-collection",
+                   self.rng.choice(list(self.seen)))
+
+
+def run_phase(args, clients, book_ids, queries, seconds):
+    ops, weights = [], []
+    for part in args.mix.split(","):
+        name, weight = part.split("=")
+        ops.append(name.strip())
+        weights.append(float(weight))
+    stats_ref = [Stats()]
+    stop_at = [time.time() + seconds]
+    workers = []
+    for i in range(args.concurrency):
+        # Her işçinin kendi bağlantısı olur; oturum kullanıcılar arasında dönüşümlü paylaşılır
+        client = Client(args.base_url, args.timeout)
+        client.headers = dict(clients[i % len(clients)].headers)
+        workers.append(Worker(i, args, client, ops, weights, book_ids, queries, stats_ref, stop_at))
+    started = time.time()
+    for worker in workers:
+        worker.start()
+    for worker in workers:
+        worker.join()
+    for worker in workers:
+        worker.client.close()
+    return stats_ref[0], time.time() - started
+
+
+def report(stats, elapsed):
+    rows = []
+    for name in sorted(stats.latencies):
+        values = sorted(stats.latencies[name])
+        count = len(values)
+        rows.append({
+            "endpoint": name,
+            "requests": count,
+            "throughput": count / elapsed,
+            "errorRate": stats.errors[name] / count if count else 0.0,
+            "p50": percentile(values, 50) * 1000,
+            "p90": percentile(values, 90) * 1000,
+            "p99": percentile(values, 99) * 1000,
+            "max": values[-1] * 1000 if values else 0.0,
+            "statuses": {str(k): v for k, v in sorted(stats.statuses[name].items(), key=lambda kv: str(kv[0]))},
+        })
+    header = "%-36s %9s %9s %7s %9s %9s %9s %9s" % ("endpoint", "requests", "req/s", "err%", "p50 ms", "p90 ms", "p99 ms", "max ms")
+    print(header)
+    print("-" * len(header))
+    for r in rows:
+        print("%-36s %9d %9.1f %7.2f %9.1f %9.1f %9.1f %9.1f" % (
+            r["endpoint"], r["requests"], r["throughput"], r["errorRate"] * 100, r["p50"], r["p90"], r["p99"], r["max"]))
+    total = sum(r["requests"] for r in rows)
+    errors = sum(stats.errors.values())
+    print("-" * len(header))
+    print("%-36s %9d %9.1f %7.2f" % ("total", total, total / elapsed, 100.0 * errors / total if total else 0.0))
+    return rows
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--base-url", default="http://127.0.0.1:8080")
+    parser.add_argument("--books", type=int, default=20000, help="catalog size to seed up to")
+    parser.add_argument("--users", type=int, default=20)
+    parser.add_argument("--concurrency", type=int, default=32)
+    parser.add_argument("--warmup", type=int, default=15, help="seconds")
+    parser.add_argument("--duration", type=int, default=60, help="seconds")
+    parser.add_argument("--mix", default=DEFAULT_MIX, help="weighted operations: " + DEFAULT_MIX)
+    parser.add_argument("--queries", type=int, default=500, help="distinct suggest queries (Zipf distributed)")
+    parser.add_argument("--timeout", type=float, default=30.0)
+    parser.add_argument("--seed", type=int, default=42)
+    parser.add_argument("--json", help="write the report to this file")
+    args = parser.parse_args()
+
+    rng = random.Random(args.seed)
+    setup = Client(args.base_url, args.timeout)
+    seed_catalog(setup, args.books, rng)
+    book_ids = sample_book_ids(setup, 5000)
+    clients = sign_in_users(args.base_url, max(1, args.users), args.timeout)
+    queries = ["%s %s" % (rng.choice(SUGGEST_TERMS), rng.choice(TITLE_WORDS)) for _ in range(args.queries)]
+
+    if args.warmup > 0:
+        print("warmup: %d s" % args.warmup)
+        run_phase(args, clients, book_ids, queries, args.warmup)
+    print("measure: %d s, %d workers, mix %s" % (args.duration, args.concurrency, args.mix))
+    stats, elapsed = run_phase(args, clients, book_ids, queries, args.duration)
+    rows = report(stats, elapsed)
+
+    if args.json:
+        with open(args.json, "w", encoding="utf-8") as f:
+            json.dump({"config": vars(args), "elapsedSeconds": elapsed, "endpoints": rows}, f, indent=2)
+        print("report written to %s" % args.json)
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,125 @@
+#!/bin/bash
+# Library API load test: database + Google Books stub + API + mixed traffic, all on this machine.
+#
+#   loadtest/run.sh                         # defaults below
+#   DURATION=300 CONCURRENCY=64 loadtest/run.sh --mix "list=50,suggest=50"
+#
+# Extra arguments are passed to loadgen.py. Without LOADTEST_DB_URL a throwaway
+# PostgreSQL container (tmpfs, image must already be pulled) is started on DB_PORT.
+# The API jar is built once with "mvn -o" (dependencies must already be in ~/.m2).
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+OUT="${OUT:-$ROOT/loadtest/results/$(date +%Y%m%d-%H%M%S)}"
+
+APP_PORT="${APP_PORT:-8080}"
+STUB_PORT="${STUB_PORT:-8089}"
+DB_PORT="${DB_PORT:-5434}"
+DB_IMAGE="${DB_IMAGE:-postgres:15}"
+DB_CONTAINER="library-loadtest-db"
+LOADTEST_DB_URL="${LOADTEST_DB_URL:-}"
+STARTED_DB=0
+DB_USER="${DB_USER:-admin}"
+DB_PASSWORD="${DB_PASSWORD:-123456}"
+
+STUB_LATENCY_MS="${STUB_LATENCY_MS:-120}"
+STUB_JITTER_MS="${STUB_JITTER_MS:-40}"
+STUB_ERROR_RATE="${STUB_ERROR_RATE:-0}"
+
+BOOKS="${BOOKS:-20000}"
+USERS="${USERS:-20}"
+CONCURRENCY="${CONCURRENCY:-32}"
+WARMUP="${WARMUP:-15}"
+DURATION="${DURATION:-60}"
+JAVA_OPTS="${JAVA_OPTS:--Xms512m -Xmx512m}"
+
+mkdir -p "$OUT"
+PIDS=()
+
+cleanup() {
+    for pid in "${PIDS[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+    wait 2>/dev/null || true
+    if [ "$STARTED_DB" = 1 ]; then
+        docker rm -f "$DB_CONTAINER" >/dev/null 2>&1 || true
+    fi
+}
+trap cleanup EXIT
+
+wait_for() {
+    local what="$1" url="$2" tries="${3:-120}"
+    for _ in $(seq "$tries"); do
+        if curl -fs "$url" >/dev/null 2>&1; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "✗ $what did not come up ($url)" >&2
+    return 1
+}
+
+# 1. Database
+if [ -z "$LOADTEST_DB_URL" ]; then
+    echo "ℹ Starting PostgreSQL ($DB_IMAGE) on port $DB_PORT"
+    docker rm -f "$DB_CONTAINER" >/dev/null 2>&1 || true
+    STARTED_DB=1
+    docker run -d --name "$DB_CONTAINER" --tmpfs /var/lib/postgresql/data \
+        -e POSTGRES_DB=kutuphane -e POSTGRES_USER="$DB_USER" -e POSTGRES_PASSWORD="$DB_PASSWORD" \
+        -p "$DB_PORT:5432" "$DB_IMAGE" >/dev/null
+    for _ in $(seq 60); do
+        docker exec "$DB_CONTAINER" pg_isready -U "$DB_USER" -d kutuphane >/dev/null 2>&1 && break
+        sleep 1
+    done
+    LOADTEST_DB_URL="jdbc:postgresql://127.0.0.1:$DB_PORT/kutuphane?reWriteBatchedInserts=true"
+fi
+
+# 2. Google Books stub
+python3 "$ROOT/loadtest/google_books_stub.py" --port "$STUB_PORT" \
+    --latency-ms "$STUB_LATENCY_MS" --jitter-ms "$STUB_JITTER_MS" --error-rate "$STUB_ERROR_RATE" \
+    > "$OUT/stub.log" 2>&1 &
+PIDS+=($!)
+
+# 3. API
+JAR="$(ls "$ROOT"/library-api/target/library-api-*.jar 2>/dev/null | grep -v original | head -1 || true)"
+if [ -z "$JAR" ]; then
+    echo "ℹ Building library-api"
+    (cd "$ROOT/library-api" && mvn -o -q -B -DskipTests package)
+    JAR="$(ls "$ROOT"/library-api/target/library-api-*.jar | grep -v original | head -1)"
+fi
+echo "ℹ Starting $(basename "$JAR") on port $APP_PORT"
+# shellcheck disable=SC2086
+java $JAVA_OPTS -jar "$JAR" \
+    --server.port="$APP_PORT" \
+    --spring.datasource.url="$LOADTEST_DB_URL" \
+    --spring.datasource.username="$DB_USER" \
+    --spring.datasource.password="$DB_PASSWORD" \
+    --spring.jpa.show-sql=false \
+    --logging.level.org.springframework.security=INFO \
+    --google.books.api.url="http://127.0.0.1:$STUB_PORT/books/v1/volumes" \
+    --library.covers.allowed-hosts="127.0.0.1:$STUB_PORT" \
+    --library.covers.cache-dir="$OUT/covers" \
+    --security.session.mode=stateless \
+    --security.token.secret="loadtest-only-session-token-secret-$(date +%s)" \
+    > "$OUT/app.log" 2>&1 &
+PIDS+=($!)
+
+wait_for "Google Books stub" "http://127.0.0.1:$STUB_PORT/books/v1/volumes?q=ping"
+wait_for "Library API" "http://127.0.0.1:$APP_PORT/api/stats"
+
+# 4. Traffic
+python3 "$ROOT/loadtest/loadgen.py" \
+    --base-url "http://127.0.0.1:$APP_PORT" \
+    --books "$BOOKS" --users "$USERS" --concurrency "$CONCURRENCY" \
+    --warmup "$WARMUP" --duration "$DURATION" \
+    --json "$OUT/report.json" "$@" | tee "$OUT/report.txt"
+
+# 5. Önbellek istatistikleri (yönetici ucu; kurulum ucunun admin hesabıyla)
+API="http://127.0.0.1:$APP_PORT"
+curl -fs -X POST "$API/api/setup/create-admin" >/dev/null || true
+ADMIN_TOKEN="$(curl -fs -H 'Content-Type: application/json' -d '{"username":"admin","password":"admin"}' \
+    "$API/api/auth/login" | python3 -c 'import json, sys; print(json.load(sys.stdin).get("token", ""))' || true)"
+curl -fs -H "Authorization: Bearer $ADMIN_TOKEN" "$API/api/admin/google-books-cache" \
+    > "$OUT/google-books-cache.json" || true
+echo "✓ Results in $OUT"